@@ -0,0 +1,14 @@
+package com.kudiapp.kudiapp.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+
+/**
+ * Enables the {@code AuditingEntityListener} on {@code BaseEntity}, so
+ * {@code created_at} and {@code updated_at} are filled in on every save.
+ * Keyset pagination orders by {@code (created_at, id)} and relies on this.
+ */
+@Configuration
+@EnableJpaAuditing
+public class JpaAuditingConfig {
+}
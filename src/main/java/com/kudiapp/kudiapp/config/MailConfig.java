@@ -1,13 +1,26 @@
 package com.kudiapp.kudiapp.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 public class MailConfig {
 
+    @Value("${app.mail.smtp.connect-timeout-ms:10000}")
+    private int connectTimeoutMs;
+
+    @Value("${app.mail.smtp.read-timeout-ms:10000}")
+    private int readTimeoutMs;
+
+    @Value("${app.mail.smtp.write-timeout-ms:10000}")
+    private int writeTimeoutMs;
+
     @Bean
     public JavaMailSender javaMailSender() {
         JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
@@ -20,6 +33,31 @@ public class MailConfig {
         mailSender.getJavaMailProperties().put("mail.smtp.starttls.enable", "true");
         mailSender.getJavaMailProperties().put("mail.smtp.ssl.trust", "smtp.gmail.com");
 
+        // Without these a stalled SMTP server blocks a mail worker indefinitely
+        mailSender.getJavaMailProperties().put("mail.smtp.connectiontimeout", String.valueOf(connectTimeoutMs));
+        mailSender.getJavaMailProperties().put("mail.smtp.timeout", String.valueOf(readTimeoutMs));
+        mailSender.getJavaMailProperties().put("mail.smtp.writetimeout", String.valueOf(writeTimeoutMs));
+
         return mailSender;
     }
+
+    /**
+     * Bounded executor for delivering outbox mail. Rejected tasks are fine: the
+     * message ids stay queued for the running workers or the outbox poller.
+     */
+    @Bean(name = "mailExecutor")
+    public ThreadPoolTaskExecutor mailExecutor(
+            @Value("${app.mail.executor.core-size:2}") int coreSize,
+            @Value("${app.mail.executor.max-size:2}") int maxSize,
+            @Value("${app.mail.executor.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("mail-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
 }
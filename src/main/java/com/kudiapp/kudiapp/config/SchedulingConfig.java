@@ -0,0 +1,16 @@
+package com.kudiapp.kudiapp.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} jobs and the auto-configured {@code TaskScheduler}.
+ * <p>
+ * The scheduler pool is sized with {@code spring.task.scheduling.pool.size}; the
+ * default of one thread would let a slow job, such as checkout recovery waiting
+ * on Stripe, hold up the webhook and mail pollers and the reconcilers.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,34 @@
+package com.kudiapp.kudiapp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Bounded executor for processing stored webhook events.
+ * <p>
+ * When the queue is full new tasks are rejected rather than run on the request
+ * thread; the events stay in the inbox and are picked up by the poller.
+ */
+@Configuration
+public class WebhookExecutorConfig {
+
+    @Bean(name = "webhookExecutor")
+    public ThreadPoolTaskExecutor webhookExecutor(
+            @Value("${app.webhooks.executor.core-size:2}") int coreSize,
+            @Value("${app.webhooks.executor.max-size:4}") int maxSize,
+            @Value("${app.webhooks.executor.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("webhook-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -0,0 +1,89 @@
+package com.kudiapp.kudiapp.config.dataseeder;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prepares the tables behind cursor-paginated listings.
+ * <p>
+ * Rows saved before JPA auditing was enabled have no created_at, which would
+ * drop them from (created_at, id) keyset pages; they are backfilled from
+ * updated_at, or the migration time.
+ * <p>
+ * The supporting indexes are created here rather than by the schema tool, with
+ * CREATE INDEX CONCURRENTLY so that building them on a large orders table does
+ * not block inserts and updates. The statements run auto-committed, since a
+ * concurrent build cannot run inside a transaction. A build that failed part way
+ * leaves an invalid index behind, which is dropped and built again; one that
+ * another instance is still running is left to finish. Any failure here fails
+ * startup, rather than leaving the keyset listings to scan.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class KeysetPaginationMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeysetPaginationMigration.class);
+
+    private static final List<String> TABLES = List.of("orders", "users", "service_products");
+
+    // index name -> definition
+    private static final Map<String, String> INDEXES = Map.of(
+            "idx_order_status_action_created", "orders (status, action, created_at, id)",
+            "idx_order_user_created", "orders (user_id, created_at, id)",
+            "idx_user_created_at", "users (created_at, id)"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public KeysetPaginationMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        for (String table : TABLES) {
+            try {
+                int updatedRows = jdbcTemplate.update(
+                        "UPDATE " + table + " SET created_at = COALESCE(updated_at, NOW()) WHERE created_at IS NULL"
+                );
+                logger.info("Backfilled created_at on {} rows of {}", updatedRows, table);
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to backfill created_at on " + table, e);
+            }
+        }
+
+        INDEXES.forEach(this::createIndex);
+    }
+
+    private void createIndex(String name, String definition) {
+        try {
+            List<Map<String, Object>> existing = jdbcTemplate.queryForList(
+                    "SELECT i.indisvalid AS valid, EXISTS (SELECT 1 FROM pg_stat_progress_create_index p " +
+                    "WHERE p.index_relid = c.oid) AS building " +
+                    "FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid WHERE c.relname = ?", name);
+            if (!existing.isEmpty()) {
+                Map<String, Object> index = existing.get(0);
+                if (Boolean.TRUE.equals(index.get("valid"))) {
+                    return;
+                }
+                if (Boolean.TRUE.equals(index.get("building"))) {
+                    logger.info("Index {} is being built by another session", name);
+                    return;
+                }
+                logger.warn("Index {} is invalid from an interrupted build, rebuilding it", name);
+                jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+            }
+            jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + name + " ON " + definition);
+            logger.info("Created pagination index {}", name);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to create pagination index " + name, e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.kudiapp.kudiapp.config.dataseeder;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Moves tables created with IDENTITY ids onto the pooled sequences now used for
+ * id generation.
+ * <p>
+ * Drops the IDENTITY default from each id column, creates each
+ * "&lt;entity&gt;_seq" sequence if the schema tool has not, and moves it past
+ * the highest existing id. The sequence is only ever moved forward, so running
+ * this again, or while another instance of this version holds an allocated id
+ * block, is safe.
+ * <p>
+ * Instances of the previous version insert through the IDENTITY default and
+ * would collide with the pooled id blocks, so this needs a stop-the-world
+ * deploy: stop every old instance before the first new one starts. Once the
+ * default is dropped, old instances (including a rollback) fail their inserts
+ * outright instead of reusing ids. Any failure here fails startup.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class SequenceMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(SequenceMigration.class);
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    // table -> sequence, following Hibernate's implicit "<entity name>_seq" naming
+    private static final Map<String, String> SEQUENCES = Map.ofEntries(
+            Map.entry("users", "user_seq"),
+            Map.entry("roles", "role_seq"),
+            Map.entry("permissions", "permission_item_seq"),
+            Map.entry("notifications", "notification_seq"),
+            Map.entry("media", "media_seq"),
+            Map.entry("dashboardstats", "dashboard_stats_seq"),
+            Map.entry("password_reset_tokens", "password_reset_token_seq"),
+            Map.entry("verification_code", "verification_code_seq"),
+            Map.entry("news_letter", "news_letter_seq"),
+            Map.entry("payments", "payment_seq"),
+            Map.entry("carts", "cart_seq"),
+            Map.entry("orders", "order_seq"),
+            Map.entry("service_products", "service_product_seq"),
+            Map.entry("service_product_plans", "service_product_plan_seq"),
+            Map.entry("service_product_prices", "service_product_price_seq"),
+            Map.entry("currency_exchange_rates", "currency_exchange_rate_seq")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SequenceMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrateSequences() {
+        SEQUENCES.forEach(this::alignSequence);
+    }
+
+    private void alignSequence(String table, String sequence) {
+        try {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id DROP IDENTITY IF EXISTS");
+            jdbcTemplate.execute(
+                    "CREATE SEQUENCE IF NOT EXISTS " + sequence +
+                    " START WITH 1 INCREMENT BY " + ALLOCATION_SIZE
+            );
+            jdbcTemplate.queryForList(
+                    "SELECT setval('" + sequence + "', t.max_id) " +
+                    "FROM (SELECT MAX(id) AS max_id FROM " + table + ") t " +
+                    "WHERE t.max_id IS NOT NULL " +
+                    "AND t.max_id >= (SELECT last_value FROM " + sequence + ")"
+            );
+            logger.debug("Aligned sequence {} with table {}", sequence, table);
+        } catch (Exception e) {
+            // Starting with a misaligned sequence would fail every insert with a duplicate key
+            throw new IllegalStateException(
+                    "Failed to align sequence " + sequence + " with table " + table, e);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.kudiapp.kudiapp.config.dataseeder;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Makes verification codes unique per email.
+ * <p>
+ * Before the OTP store kept one code per email, a resend inserted a new row,
+ * so existing tables can hold several codes for one address. The schema tool
+ * cannot add uk_verification_code_email over those rows and only logs the
+ * failure, so this removes all but the newest code per email and adds the
+ * constraint itself. The table is locked while it runs so that no duplicate can
+ * be inserted between the two steps. Any failure here fails startup.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class VerificationCodeMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(VerificationCodeMigration.class);
+
+    private static final String TABLE = "verification_code";
+    private static final String CONSTRAINT = "uk_verification_code_email";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public VerificationCodeMigration(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void migrate() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Integer existing = jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM pg_constraint WHERE conname = ?", Integer.class, CONSTRAINT);
+                if (existing != null && existing > 0) {
+                    return;
+                }
+
+                jdbcTemplate.execute("LOCK TABLE " + TABLE + " IN SHARE ROW EXCLUSIVE MODE");
+
+                // Newest first by creation time, then id, for rows saved before auditing
+                int deletedRows = jdbcTemplate.update(
+                        "DELETE FROM " + TABLE + " v USING (" +
+                        "SELECT id, ROW_NUMBER() OVER (PARTITION BY email " +
+                        "ORDER BY created_at DESC NULLS LAST, id DESC) AS rn FROM " + TABLE +
+                        ") ranked WHERE v.id = ranked.id AND ranked.rn > 1"
+                );
+                jdbcTemplate.execute(
+                        "ALTER TABLE " + TABLE + " ADD CONSTRAINT " + CONSTRAINT + " UNIQUE (email)"
+                );
+                logger.info("Removed {} duplicate verification codes and added {}", deletedRows, CONSTRAINT);
+            });
+        } catch (Exception e) {
+            // Without the constraint, concurrent sends could leave two live codes for one email
+            throw new IllegalStateException("Failed to add " + CONSTRAINT + " to " + TABLE, e);
+        }
+    }
+}
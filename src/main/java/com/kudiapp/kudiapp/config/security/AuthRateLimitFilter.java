@@ -0,0 +1,87 @@
+package com.kudiapp.kudiapp.config.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kudiapp.kudiapp.dto.GenericResponse;
+import com.kudiapp.kudiapp.enums.AuthRateLimitRule;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Rejects over-limit requests to the login, OTP and password reset endpoints
+ * with 429 before they reach authentication or the database.
+ * <p>
+ * Every matched request is limited by client IP. That is the remote address as
+ * rewritten by Tomcat's RemoteIpValve ({@code server.forward-headers-strategy=native}),
+ * which only trusts X-Forwarded-For entries appended by the configured internal
+ * proxies, so a client cannot pick its own key by sending the header. Endpoints that take the email
+ * as a query parameter are also limited by email here; login and forgot-password
+ * carry it in the JSON body, which this filter never reads, so their per-email
+ * limit is applied by the service through {@link AuthRateLimiter#checkEmail}.
+ * Other paths, including the payment webhook, pass through untouched.
+ */
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthRateLimitFilter.class);
+
+    private static final Map<String, AuthRateLimitRule> RULES = Map.of(
+            "/api/v1/auth/login", AuthRateLimitRule.LOGIN,
+            "/api/v1/auth/verify-email", AuthRateLimitRule.OTP,
+            "/api/v1/auth/resend-otp", AuthRateLimitRule.OTP,
+            "/api/v1/auth/forgot-password", AuthRateLimitRule.PASSWORD_RESET,
+            "/api/v1/auth/validate-reset-token", AuthRateLimitRule.PASSWORD_RESET,
+            "/api/v1/auth/reset-password", AuthRateLimitRule.PASSWORD_RESET
+    );
+
+    private final AuthRateLimiter rateLimiter;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public AuthRateLimitFilter(AuthRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return "OPTIONS".equals(request.getMethod()) || !RULES.containsKey(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AuthRateLimitRule rule = RULES.get(request.getServletPath());
+
+        long retryAfterSeconds = rateLimiter.tryAcquireForIp(rule, request.getRemoteAddr());
+        // Only GET parameters come from the query string, anything else could mean reading the body
+        if (retryAfterSeconds == 0 && "GET".equals(request.getMethod())) {
+            retryAfterSeconds = rateLimiter.tryAcquireForEmail(rule, request.getParameter("email"));
+        }
+
+        if (retryAfterSeconds > 0) {
+            logger.warn("Rate limited {} {} from {}, retry after {}s",
+                    request.getMethod(), request.getServletPath(), request.getRemoteAddr(), retryAfterSeconds);
+            reject(response, retryAfterSeconds);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private void reject(HttpServletResponse response, long retryAfterSeconds) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new GenericResponse(
+                false,
+                "Too many attempts, please try again in " + retryAfterSeconds + " seconds",
+                HttpStatus.TOO_MANY_REQUESTS));
+    }
+}
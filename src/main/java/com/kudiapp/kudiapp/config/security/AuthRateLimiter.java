@@ -0,0 +1,106 @@
+package com.kudiapp.kudiapp.config.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kudiapp.kudiapp.enums.AuthRateLimitRule;
+import com.kudiapp.kudiapp.exceptions.TooManyRequestsException;
+import com.kudiapp.kudiapp.utills.TokenBucket;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * In-memory token-bucket limits for login, OTP and password reset, keyed by
+ * client IP and by email address.
+ * <p>
+ * Buckets live in a bounded Caffeine cache and are dropped once idle, so the
+ * limiter never touches the database. Limits are per instance. Rejections are
+ * counted in the {@code auth.rate_limited} metric.
+ */
+@Component
+public class AuthRateLimiter {
+
+    private final Cache<String, TokenBucket> buckets;
+    private final MeterRegistry meterRegistry;
+    private final Map<AuthRateLimitRule, Limits> limits = new EnumMap<>(AuthRateLimitRule.class);
+
+    public AuthRateLimiter(Environment environment,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.auth.rate-limit.max-keys:100000}") long maxKeys) {
+        this.meterRegistry = meterRegistry;
+
+        long longestWindowMs = 0;
+        for (AuthRateLimitRule rule : AuthRateLimitRule.values()) {
+            String prefix = "app.auth.rate-limit." + rule.getKey();
+            Limits ruleLimits = new Limits(
+                    environment.getProperty(prefix + ".per-ip", Integer.class, rule.getDefaultPerIp()),
+                    environment.getProperty(prefix + ".per-email", Integer.class, rule.getDefaultPerEmail()),
+                    environment.getProperty(prefix + ".window-ms", Long.class, rule.getDefaultWindowMs()));
+            limits.put(rule, ruleLimits);
+            longestWindowMs = Math.max(longestWindowMs, ruleLimits.windowMs());
+        }
+
+        // An idle bucket is full again after one window, so dropping it then loses nothing
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofMillis(longestWindowMs))
+                .build();
+    }
+
+    /**
+     * @return 0 if the request may proceed, otherwise the seconds until it may be retried
+     */
+    public long tryAcquireForIp(AuthRateLimitRule rule, String ip) {
+        return tryAcquire(rule, "ip", ip, limits.get(rule).perIp());
+    }
+
+    /**
+     * @return 0 if the request may proceed, otherwise the seconds until it may be retried
+     */
+    public long tryAcquireForEmail(AuthRateLimitRule rule, String email) {
+        if (email == null || email.isBlank()) {
+            return 0;
+        }
+        return tryAcquire(rule, "email", email.trim().toLowerCase(Locale.ROOT), limits.get(rule).perEmail());
+    }
+
+    /**
+     * Applies the per-email limit for endpoints that only see the email in the
+     * request body, after the IP limit was applied by {@link AuthRateLimitFilter}
+     *
+     * @throws TooManyRequestsException when the limit is exhausted
+     */
+    public void checkEmail(AuthRateLimitRule rule, String email) {
+        long retryAfterSeconds = tryAcquireForEmail(rule, email);
+        if (retryAfterSeconds > 0) {
+            throw new TooManyRequestsException(
+                    "Too many attempts, please try again in " + retryAfterSeconds + " seconds",
+                    retryAfterSeconds);
+        }
+    }
+
+    private long tryAcquire(AuthRateLimitRule rule, String scope, String key, int capacity) {
+        if (capacity <= 0) {
+            return 0;
+        }
+        long windowMs = limits.get(rule).windowMs();
+        TokenBucket bucket = buckets.get(rule.getKey() + ':' + scope + ':' + key,
+                k -> new TokenBucket(capacity, windowMs));
+
+        long waitMs = bucket.tryConsume();
+        if (waitMs == 0) {
+            return 0;
+        }
+        meterRegistry.counter("auth.rate_limited", "rule", rule.getKey(), "scope", scope).increment();
+        return Math.max(1, (waitMs + 999) / 1000);
+    }
+
+    private record Limits(int perIp, int perEmail, long windowMs) {
+    }
+}
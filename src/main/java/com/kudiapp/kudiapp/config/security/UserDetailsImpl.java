@@ -45,6 +45,28 @@ public class UserDetailsImpl implements UserDetails {
                 user.isEnabled());
     }
 
+    /**
+     * Builds a principal from identity data carried in a verified access token.
+     * No password is available on this path, so it must only be used for
+     * already-authenticated requests.
+     */
+    public static UserDetailsImpl fromTokenClaims(Long id, String email, String firstname,
+                                                  String lastname, List<String> roles) {
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role))
+                .toList();
+
+        return new UserDetailsImpl(
+                id,
+                firstname + " " + lastname,
+                email,
+                firstname,
+                lastname,
+                null,
+                authorities,
+                true);
+    }
+
     @Override
     public boolean isAccountNonExpired() {
         return true;
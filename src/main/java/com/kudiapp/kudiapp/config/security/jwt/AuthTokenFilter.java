@@ -1,6 +1,8 @@
 package com.kudiapp.kudiapp.config.security.jwt;
 
+import com.kudiapp.kudiapp.config.security.UserDetailsImpl;
 import com.kudiapp.kudiapp.config.security.UserDetailsServiceImpl;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,11 +23,21 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
     private final UserDetailsServiceImpl userDetailsService;
+    private final TokenRevocationRegistry revocationRegistry;
+    private final RejectedTokenCache rejectedTokenCache;
+    private final boolean statelessPrincipal;
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
-    public AuthTokenFilter(JwtUtils jwtUtils, UserDetailsServiceImpl userDetailsService) {
+    public AuthTokenFilter(JwtUtils jwtUtils,
+                           UserDetailsServiceImpl userDetailsService,
+                           TokenRevocationRegistry revocationRegistry,
+                           RejectedTokenCache rejectedTokenCache,
+                           boolean statelessPrincipal) {
         this.jwtUtils = jwtUtils;
         this.userDetailsService = userDetailsService;
+        this.revocationRegistry = revocationRegistry;
+        this.rejectedTokenCache = rejectedTokenCache;
+        this.statelessPrincipal = statelessPrincipal;
     }
 
     @Override
@@ -36,10 +48,10 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            JwtClaims claims = jwt != null ? verifyToken(jwt) : null;
+            UserDetails userDetails = claims != null ? resolvePrincipal(claims) : null;
 
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails,
@@ -57,6 +69,48 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Verifies the token unless it is already known to be bad. Failures are
+     * cached and counted instead of being logged one line per request.
+     */
+    private JwtClaims verifyToken(String jwt) {
+        if (rejectedTokenCache.isRejected(jwt)) {
+            return null;
+        }
+        try {
+            return jwtUtils.verify(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            rejectedTokenCache.reject(jwt, e);
+            return null;
+        }
+    }
+
+    /**
+     * Builds the principal straight from the token claims when the token carries
+     * them. Tokens issued before the identity claims were added fall back to a
+     * database lookup by subject.
+     */
+    private UserDetails resolvePrincipal(JwtClaims claims) {
+        Long userId = claims.userId();
+
+        if (!statelessPrincipal || userId == null) {
+            return userDetailsService.loadUserByUsername(claims.subject());
+        }
+
+        if (revocationRegistry.isRevoked(userId, claims.issuedAt())) {
+            logger.debug("Rejected revoked access token for user {}", userId);
+            return null;
+        }
+
+        return UserDetailsImpl.fromTokenClaims(
+                userId,
+                claims.subject(),
+                claims.firstname(),
+                claims.lastname(),
+                claims.roles()
+        );
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
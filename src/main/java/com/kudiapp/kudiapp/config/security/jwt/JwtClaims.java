@@ -0,0 +1,40 @@
+package com.kudiapp.kudiapp.config.security.jwt;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Typed view of the claims of a verified access token.
+ * <p>
+ * {@code userId} is null for tokens issued before identity claims were added
+ * to access tokens; callers must fall back to a lookup by {@code subject}.
+ */
+public record JwtClaims(
+        String subject,
+        Long userId,
+        String firstname,
+        String lastname,
+        List<String> roles,
+        Date issuedAt,
+        Date expiration
+) {
+
+    static JwtClaims from(Claims claims) {
+        List<?> rawRoles = claims.get(JwtUtils.CLAIM_ROLES, List.class);
+        List<String> roles = rawRoles == null
+                ? List.of()
+                : rawRoles.stream().map(String::valueOf).toList();
+
+        return new JwtClaims(
+                claims.getSubject(),
+                claims.get(JwtUtils.CLAIM_USER_ID, Long.class),
+                claims.get(JwtUtils.CLAIM_FIRST_NAME, String.class),
+                claims.get(JwtUtils.CLAIM_LAST_NAME, String.class),
+                roles,
+                claims.getIssuedAt(),
+                claims.getExpiration()
+        );
+    }
+}
@@ -0,0 +1,115 @@
+package com.kudiapp.kudiapp.config.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, time-expiring cache of bearer tokens that already failed verification.
+ * <p>
+ * A client retrying with an expired or forged token is answered from this cache
+ * instead of re-verifying the signature. Only a SHA-256 hash of the token is kept.
+ * Rejections are counted in the {@code auth.jwt.rejected} metric and logged at
+ * most once per sampling interval.
+ */
+@Component
+public class RejectedTokenCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RejectedTokenCache.class);
+
+    private final Cache<String, String> rejected;
+    private final MeterRegistry meterRegistry;
+    private final long logIntervalMs;
+
+    private final LongAdder rejectedSinceLastLog = new LongAdder();
+    private final AtomicLong lastLogAt = new AtomicLong();
+
+    public RejectedTokenCache(MeterRegistry meterRegistry,
+                              @Value("${app.jwt.rejected-cache.max-size:10000}") long maxSize,
+                              @Value("${app.jwt.rejected-cache.ttl-ms:600000}") long ttlMs,
+                              @Value("${app.jwt.rejected-log-interval-ms:60000}") long logIntervalMs) {
+        this.meterRegistry = meterRegistry;
+        this.logIntervalMs = logIntervalMs;
+        this.rejected = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build();
+    }
+
+    /**
+     * @return true if this token was rejected before and is still cached
+     */
+    public boolean isRejected(String token) {
+        String reason = rejected.getIfPresent(hash(token));
+        if (reason == null) {
+            return false;
+        }
+        record(reason, "cache");
+        return true;
+    }
+
+    /**
+     * Remembers a token that failed verification.
+     */
+    public void reject(String token, RuntimeException cause) {
+        String reason = reasonOf(cause);
+        rejected.put(hash(token), reason);
+        record(reason, "parser");
+    }
+
+    private void record(String reason, String source) {
+        meterRegistry.counter("auth.jwt.rejected", "reason", reason, "source", source).increment();
+
+        rejectedSinceLastLog.increment();
+        long now = System.currentTimeMillis();
+        long last = lastLogAt.get();
+        if (now - last >= logIntervalMs && lastLogAt.compareAndSet(last, now)) {
+            logger.warn("Rejected {} bearer token(s) since last report, latest reason: {}",
+                    rejectedSinceLastLog.sumThenReset(), reason);
+        }
+    }
+
+    private static String reasonOf(RuntimeException cause) {
+        if (cause instanceof ExpiredJwtException) {
+            return "expired";
+        }
+        if (cause instanceof SignatureException) {
+            return "invalid_signature";
+        }
+        if (cause instanceof MalformedJwtException) {
+            return "malformed";
+        }
+        if (cause instanceof UnsupportedJwtException) {
+            return "unsupported";
+        }
+        if (cause instanceof IllegalArgumentException) {
+            return "empty";
+        }
+        return "invalid";
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
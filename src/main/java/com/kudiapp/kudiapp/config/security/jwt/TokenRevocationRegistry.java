@@ -0,0 +1,112 @@
+package com.kudiapp.kudiapp.config.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kudiapp.kudiapp.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Per-user "not before" markers used to revoke stateless access tokens.
+ * <p>
+ * When a user's credentials or status change, every access token issued to that
+ * user before the change is rejected. The marker is persisted in
+ * {@code users.tokens_valid_after}, so it holds on every instance and across
+ * restarts. Lookups go through a short-lived cache, loaded with the recent
+ * markers at startup; a revocation made on another instance takes effect here
+ * within {@code app.jwt.revocation.cache-ttl-ms}. A token for a user that no
+ * longer exists is treated as revoked.
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationRegistry.class);
+
+    // Cached for users without a marker, and returned by the query when the column is null
+    private static final Instant NONE = Instant.EPOCH;
+    // Cached for users that no longer exist
+    private static final Instant DELETED = Instant.MAX;
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Instant> notBefore;
+    private final long jwtExpirationMs;
+
+    public TokenRevocationRegistry(UserRepository userRepository,
+                                   @Value("${app.jwtExpirationMs}") long jwtExpirationMs,
+                                   @Value("${app.jwt.revocation.cache-ttl-ms:30000}") long cacheTtlMs,
+                                   @Value("${app.jwt.revocation.cache-max-size:100000}") long cacheMaxSize) {
+        this.userRepository = userRepository;
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.notBefore = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+                .build();
+    }
+
+    /**
+     * Revokes all access tokens issued to the user up to now. The marker is
+     * written in the caller's transaction and applied to this instance's cache
+     * once it commits.
+     */
+    public void revokeAllForUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        // JWT "iat" has second precision, so the marker is kept in whole seconds too
+        Instant cutoff = Instant.ofEpochSecond(System.currentTimeMillis() / 1000);
+        userRepository.revokeTokensIssuedBefore(userId, cutoff);
+        afterCommit(() -> notBefore.invalidate(userId));
+        logger.info("Revoked access tokens issued before now for user {}", userId);
+    }
+
+    /**
+     * @return true if a token for this user issued at {@code issuedAt} has been revoked
+     */
+    public boolean isRevoked(Long userId, Date issuedAt) {
+        Instant cutoff = notBefore.get(userId, id ->
+                userRepository.findTokensValidAfterById(id, NONE).orElse(DELETED));
+        if (NONE.equals(cutoff)) {
+            return false;
+        }
+        if (issuedAt == null || DELETED.equals(cutoff)) {
+            return true;
+        }
+        return issuedAt.toInstant().getEpochSecond() < cutoff.getEpochSecond();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRecentMarkers() {
+        try {
+            // Older markers cannot affect a token that is still unexpired
+            Instant since = Instant.now().minusMillis(jwtExpirationMs);
+            userRepository.findTokenCutoffsSince(since)
+                    .forEach(marker -> notBefore.put(marker.getUserId(), marker.getTokensValidAfter()));
+            logger.info("Loaded token revocation markers issued since {}", since);
+        } catch (Exception e) {
+            logger.warn("Could not preload token revocation markers, will load on use: {}", e.getMessage());
+        }
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+}
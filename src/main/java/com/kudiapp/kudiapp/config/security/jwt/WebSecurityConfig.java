@@ -1,6 +1,9 @@
 package com.kudiapp.kudiapp.config.security.jwt;
 
+import com.kudiapp.kudiapp.config.security.AuthRateLimitFilter;
+import com.kudiapp.kudiapp.config.security.AuthRateLimiter;
 import com.kudiapp.kudiapp.config.security.UserDetailsServiceImpl;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.web.config.EnableSpringDataWebSupport;
@@ -25,6 +28,10 @@ public class WebSecurityConfig {
     private final AuthEntryPointJwt unauthorizedHandler;
     private final JwtUtils jwtUtils;
     private final CorsConfigurationSource corsConfigurationSource;
+    private final TokenRevocationRegistry revocationRegistry;
+    private final RejectedTokenCache rejectedTokenCache;
+    private final AuthRateLimiter authRateLimiter;
+    private final boolean statelessPrincipal;
 
     private static final String[] WHITELIST = {
             "/api/v1/auth/**",
@@ -50,16 +57,29 @@ public class WebSecurityConfig {
     public WebSecurityConfig(UserDetailsServiceImpl userDetailsService,
                              AuthEntryPointJwt unauthorizedHandler,
                              JwtUtils jwtUtils,
-                             CorsConfigurationSource corsConfigurationSource) {
+                             CorsConfigurationSource corsConfigurationSource,
+                             TokenRevocationRegistry revocationRegistry,
+                             RejectedTokenCache rejectedTokenCache,
+                             AuthRateLimiter authRateLimiter,
+                             @Value("${app.jwt.stateless-principal:true}") boolean statelessPrincipal) {
         this.userDetailsService = userDetailsService;
         this.unauthorizedHandler = unauthorizedHandler;
         this.jwtUtils = jwtUtils;
         this.corsConfigurationSource = corsConfigurationSource;
+        this.revocationRegistry = revocationRegistry;
+        this.rejectedTokenCache = rejectedTokenCache;
+        this.authRateLimiter = authRateLimiter;
+        this.statelessPrincipal = statelessPrincipal;
     }
 
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
-        return new AuthTokenFilter(jwtUtils, userDetailsService);
+        return new AuthTokenFilter(jwtUtils, userDetailsService, revocationRegistry, rejectedTokenCache, statelessPrincipal);
+    }
+
+    @Bean
+    public AuthRateLimitFilter authRateLimitFilter() {
+        return new AuthRateLimitFilter(authRateLimiter);
     }
 
     @Bean
@@ -88,6 +108,8 @@ public class WebSecurityConfig {
                         .anyRequest().authenticated()
                 )
                 .userDetailsService(userDetailsService)
+                // Registered first so it runs ahead of the JWT filter
+                .addFilterBefore(authRateLimitFilter(), UsernamePasswordAuthenticationFilter.class)
                 .addFilterBefore(authenticationJwtTokenFilter(), UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
@@ -1,6 +1,7 @@
 package com.kudiapp.kudiapp.controller;
 
 import com.kudiapp.kudiapp.dto.GenericResponse;
+import com.kudiapp.kudiapp.dto.productService.BatchOrderRequestDto;
 import com.kudiapp.kudiapp.dto.productService.OrderRequestDto;
 import com.kudiapp.kudiapp.enums.productService.OrderAction;
 import com.kudiapp.kudiapp.enums.productService.OrderStatus;
@@ -18,10 +19,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+
 /**
  * REST Controller for managing orders
  */
@@ -58,6 +62,29 @@ public class OrderController {
         return ResponseEntity.status(response.getHttpStatus()).body(response);
     }
 
+    @PostMapping("/batch")
+    @Operation(
+            summary = "Create several orders at once",
+            description = "Creates up to 20 orders in one request and adds them to the current user's active cart. Either all orders are created or none."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "Orders created and added to cart",
+                    content = @Content(schema = @Schema(implementation = GenericResponse.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Invalid request data"),
+            @ApiResponse(responseCode = "404", description = "Service product or plan not found")
+    })
+    public ResponseEntity<GenericResponse> createOrdersBatch(
+            @Valid @RequestBody BatchOrderRequestDto request) {
+
+        log.info("Received request to create {} orders in batch", request.getOrders().size());
+
+        GenericResponse response = orderService.createOrdersBatch(request);
+        return ResponseEntity.status(response.getHttpStatus()).body(response);
+    }
+
     @GetMapping("/{id}")
     @Operation(
             summary = "Get order by ID",
@@ -104,13 +131,16 @@ public class OrderController {
             @ApiResponse(responseCode = "200", description = "Orders retrieved successfully")
     })
     public ResponseEntity<GenericResponse> getUserOrders(
+            @Parameter(description = "Keyset cursor from the previous page's nextCursor; " +
+                    "pass it empty for the first page. Skips the total count.")
+            @RequestParam(required = false) String after,
             @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) 
             Pageable pageable) {
         
         log.info("Received request to get user orders - page: {}, size: {}", 
                 pageable.getPageNumber(), pageable.getPageSize());
         
-        GenericResponse response = orderService.getUserOrders(pageable);
+        GenericResponse response = orderService.getUserOrders(after, pageable);
         return ResponseEntity.status(response.getHttpStatus()).body(response);
     }
 
@@ -147,11 +177,25 @@ public class OrderController {
             @RequestParam(required = false) OrderStatus status,
             @Parameter(description = "Filter by action") 
             @RequestParam(required = false) OrderAction action,
+            @Parameter(description = "Only orders created at or after this time (ISO-8601)")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @Parameter(description = "Only orders created before this time (ISO-8601)")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @Parameter(description = "Filter by service product ID")
+            @RequestParam(required = false) Long serviceProductId,
+            @Parameter(description = "Filter by user ID")
+            @RequestParam(required = false) Long userId,
+            @Parameter(description = "Keyset cursor from the previous page's nextCursor; " +
+                    "pass it empty for the first page. Skips the total count.")
+            @RequestParam(required = false) String after,
             @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) 
             Pageable pageable) {
         
         log.info("Admin request to get all orders - status: {}, action: {}", status, action);
-        GenericResponse response = orderService.getAllOrders(status, action, pageable);
+        GenericResponse response = orderService.getAllOrders(
+                status, action, createdFrom, createdTo, serviceProductId, userId, after, pageable);
         return ResponseEntity.status(response.getHttpStatus()).body(response);
     }
 
@@ -4,14 +4,21 @@ import com.kudiapp.kudiapp.dto.GenericResponse;
 import com.kudiapp.kudiapp.dto.request.payment.InitPaymentRequest;
 import com.kudiapp.kudiapp.dto.request.payment.InitPaymentResponse;
 import com.kudiapp.kudiapp.services.productService.PaymentService;
+import com.stripe.model.Event;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
-import java.util.stream.Collectors;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
 
 @RestController
 @RequestMapping("/api/v1/payments")
@@ -19,9 +26,18 @@ import java.util.stream.Collectors;
 public class PaymentsController {
 
     private final PaymentService paymentService;
+    private final int maxWebhookBodyBytes;
+    private final boolean logWebhookBodies;
+    private final double webhookBodyLogSampleRate;
 
-    public PaymentsController(PaymentService paymentService) {
+    public PaymentsController(PaymentService paymentService,
+                              @Value("${app.webhooks.max-body-bytes:262144}") int maxWebhookBodyBytes,
+                              @Value("${app.webhooks.log-body:false}") boolean logWebhookBodies,
+                              @Value("${app.webhooks.log-body-sample-rate:0.01}") double webhookBodyLogSampleRate) {
         this.paymentService = paymentService;
+        this.maxWebhookBodyBytes = maxWebhookBodyBytes;
+        this.logWebhookBodies = logWebhookBodies;
+        this.webhookBodyLogSampleRate = webhookBodyLogSampleRate;
     }
 
     @PostMapping("/initiatePayment")
@@ -37,31 +53,50 @@ public class PaymentsController {
         return new ResponseEntity<>(response, response.getHttpStatus());
     }
 
+    @GetMapping("/revenue/daily")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_SUPER_ADMIN')")
+    public ResponseEntity<GenericResponse> getDailyRevenue(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String currency) {
+        GenericResponse response = paymentService.getDailyRevenue(from, to, currency);
+        return new ResponseEntity<>(response, response.getHttpStatus());
+    }
+
     @PostMapping(value = "/webhook", consumes = "application/json")
     public ResponseEntity<String> handlePaystackWebhook(
             HttpServletRequest request,
             @RequestHeader(value = "Stripe-Signature", required = false) String signatureHeader) throws IOException {
 
-        log.info("=== WEBHOOK REQUEST RECEIVED ===");
-        log.info("Remote Address: {}", request.getRemoteAddr());
-        log.info("Request URL: {}", request.getRequestURL());
-        log.info("Method: {}", request.getMethod());
-        log.info("Content-Type: {}", request.getContentType());
-        log.info("Signature Header: {}", signatureHeader);
-        // Get raw body directly from request
-        String rawBody = request.getReader().lines().collect(Collectors.joining(System.lineSeparator()));
-
-        log.info("Raw Body length: {}", rawBody.length());
-        log.info("Body preview: {}", rawBody.substring(0, Math.min(200, rawBody.length())));
+        if (request.getContentLengthLong() > maxWebhookBodyBytes) {
+            return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE).body("Payload too large");
+        }
+
+        // Read the body once, with a cap; one byte more than the cap tells us it was exceeded
+        byte[] body = request.getInputStream().readNBytes(maxWebhookBodyBytes + 1);
+        if (body.length > maxWebhookBodyBytes) {
+            return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE).body("Payload too large");
+        }
+
+        // Stripe signs the UTF-8 body; decoding once keeps exactly those bytes for verification and parsing
+        String rawBody = new String(body, StandardCharsets.UTF_8);
+
+        if (log.isDebugEnabled() && logWebhookBodies
+                && ThreadLocalRandom.current().nextDouble() < webhookBodyLogSampleRate) {
+            log.debug("Webhook body ({} bytes): {}", body.length,
+                    rawBody.substring(0, Math.min(200, rawBody.length())));
+        }
+
         if (signatureHeader == null) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Invalid signature");
         }
 
-        if (!paymentService.isSignatureValid(rawBody, signatureHeader)) {
+        Optional<Event> event = paymentService.verifyWebhook(rawBody, signatureHeader);
+        if (event.isEmpty()) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Invalid signature");
         }
 
-        paymentService.processWebhookAsync(rawBody);
+        paymentService.receiveWebhook(rawBody, event.get());
         return ResponseEntity.ok("Webhook received");
     }
 }
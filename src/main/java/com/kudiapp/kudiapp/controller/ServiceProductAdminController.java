@@ -93,13 +93,15 @@ public class ServiceProductAdminController {
             @Parameter(description = "Filter by product title") @RequestParam(required = false) PRODUCT_TITLE title,
             @Parameter(description = "Filter by urgency type") @RequestParam(required = false) UrgencyType urgency,
             @Parameter(description = "Filter by status") @RequestParam(required = false) ServiceProductStatus status,
+            @Parameter(description = "Keyset cursor from the previous page's nextCursor; pass it empty for the first page")
+            @RequestParam(required = false) String after,
             @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
 
         log.info("Received request to get all service products with filters - category: {}, title: {}, urgency: {}, status: {}, page: {}, size: {}",
                 category, title, urgency, status, pageable.getPageNumber(), pageable.getPageSize());
 
         GenericResponse response = serviceProductService.findAllServiceProducts(
-                category, title, urgency, status, pageable);
+                category, title, urgency, status, after, pageable);
         return ResponseEntity.status(response.getHttpStatus()).body(response);
     }
 
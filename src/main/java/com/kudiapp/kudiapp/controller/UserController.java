@@ -22,9 +22,10 @@ public class UserController {
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public ResponseEntity<GenericResponse> findAllUsers(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String after
     ) {
-        GenericResponse response = userService.getAllUsers(page, size);
+        GenericResponse response = userService.getAllUsers(page, size, after);
         return new ResponseEntity<>(response, response.getHttpStatus());
     }
 
@@ -0,0 +1,26 @@
+package com.kudiapp.kudiapp.dto.productService;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for creating several orders in one call, e.g. all items of one checkout.
+ * The created orders are added to the user's active cart.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOrderRequestDto {
+
+    @NotEmpty(message = "At least one order is required")
+    @Size(max = 20, message = "A batch must not contain more than 20 orders")
+    private List<@Valid OrderRequestDto> orders;
+}
@@ -0,0 +1,22 @@
+package com.kudiapp.kudiapp.dto.productService;
+
+import com.kudiapp.kudiapp.enums.productService.Currency;
+
+import java.math.BigDecimal;
+
+/**
+ * The order columns shown in a cart response, read without loading the full
+ * order row (credentials, metadata, admin notes)
+ */
+public record CartOrderSummary(
+        Long cartId,
+        Long orderId,
+        String orderReference,
+        String serviceProductName,
+        String servicePlanName,
+        BigDecimal amount,
+        BigDecimal serviceFee,
+        BigDecimal totalAmount,
+        Currency currency
+) {
+}
@@ -0,0 +1,19 @@
+package com.kudiapp.kudiapp.dto.productService;
+
+import com.kudiapp.kudiapp.enums.productService.CartStatus;
+import com.kudiapp.kudiapp.enums.productService.Currency;
+
+import java.math.BigDecimal;
+
+/**
+ * The payment-relevant columns of a checked-out cart, used to answer payment
+ * verification without loading the cart or calling the payment provider
+ */
+public record CartPaymentState(
+        Long cartId,
+        String paymentReference,
+        CartStatus status,
+        BigDecimal totalAmount,
+        Currency currency
+) {
+}
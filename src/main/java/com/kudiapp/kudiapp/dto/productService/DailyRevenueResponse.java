@@ -0,0 +1,10 @@
+package com.kudiapp.kudiapp.dto.productService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Successful payment total for one day and currency.
+ */
+public record DailyRevenueResponse(LocalDate date, String currency, BigDecimal totalAmount, long paymentCount) {
+}
@@ -0,0 +1,10 @@
+package com.kudiapp.kudiapp.dto.productService;
+
+import com.kudiapp.kudiapp.enums.productService.OrderAction;
+import com.kudiapp.kudiapp.enums.productService.OrderStatus;
+
+/**
+ * Number of orders sharing one (status, action) combination.
+ */
+public record OrderStatusActionCount(OrderStatus status, OrderAction action, long count) {
+}
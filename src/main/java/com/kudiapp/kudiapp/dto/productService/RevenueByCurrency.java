@@ -0,0 +1,9 @@
+package com.kudiapp.kudiapp.dto.productService;
+
+import java.math.BigDecimal;
+
+/**
+ * Successful payment total for one currency.
+ */
+public record RevenueByCurrency(String currency, BigDecimal totalAmount) {
+}
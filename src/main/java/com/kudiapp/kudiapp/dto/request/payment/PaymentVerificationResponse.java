@@ -0,0 +1,17 @@
+package com.kudiapp.kudiapp.dto.request.payment;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+public class PaymentVerificationResponse {
+    private String reference;
+    private String status;
+    private BigDecimal amount;
+    private String currency;
+    // "local" when answered from our own payment state, "stripe" otherwise
+    private String source;
+}
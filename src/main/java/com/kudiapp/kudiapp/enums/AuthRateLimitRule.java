@@ -0,0 +1,28 @@
+package com.kudiapp.kudiapp.enums;
+
+import lombok.Getter;
+
+/**
+ * Rate limits for the unauthenticated auth endpoints. Each limit is a token
+ * bucket of the given size that refills completely over the window, and can be
+ * overridden with {@code app.auth.rate-limit.<key>.per-ip},
+ * {@code .per-email} and {@code .window-ms}.
+ */
+@Getter
+public enum AuthRateLimitRule {
+    LOGIN("login", 30, 10, 900_000),
+    OTP("otp", 20, 5, 600_000),
+    PASSWORD_RESET("password-reset", 10, 3, 900_000);
+
+    private final String key;
+    private final int defaultPerIp;
+    private final int defaultPerEmail;
+    private final long defaultWindowMs;
+
+    AuthRateLimitRule(String key, int defaultPerIp, int defaultPerEmail, long defaultWindowMs) {
+        this.key = key;
+        this.defaultPerIp = defaultPerIp;
+        this.defaultPerEmail = defaultPerEmail;
+        this.defaultWindowMs = defaultWindowMs;
+    }
+}
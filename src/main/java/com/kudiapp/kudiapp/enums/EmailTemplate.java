@@ -0,0 +1,21 @@
+package com.kudiapp.kudiapp.enums;
+
+import lombok.Getter;
+
+/**
+ * Email templates under {@code templates/}, each with an HTML version and a
+ * plain text version under {@code templates/text/}
+ */
+@Getter
+public enum EmailTemplate {
+    VERIFICATION_CODE("verification-email", "Your Verification Code"),
+    PASSWORD_RESET("reset-email", "Reset Password");
+
+    private final String templateName;
+    private final String subject;
+
+    EmailTemplate(String templateName, String subject) {
+        this.templateName = templateName;
+        this.subject = subject;
+    }
+}
@@ -0,0 +1,22 @@
+package com.kudiapp.kudiapp.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum MailStatus {
+    PENDING("Queued - Waiting to be sent"),
+    RETRY("Sending failed - Waiting for retry"),
+    SENDING("Claimed by a sender"),
+    SENT("Sent"),
+    DEAD("Sending failed too often - Needs manual attention");
+
+    private final String displayName;
+
+    MailStatus(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public boolean isFinal() {
+        return this == SENT || this == DEAD;
+    }
+}
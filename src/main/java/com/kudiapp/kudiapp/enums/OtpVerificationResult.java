@@ -0,0 +1,9 @@
+package com.kudiapp.kudiapp.enums;
+
+public enum OtpVerificationResult {
+    VERIFIED,
+    NOT_FOUND,
+    EXPIRED,
+    MISMATCH,
+    TOO_MANY_ATTEMPTS
+}
@@ -0,0 +1,20 @@
+package com.kudiapp.kudiapp.enums.productService;
+
+import lombok.Getter;
+
+@Getter
+public enum CheckoutAttemptStatus {
+    PENDING("Cart checked out - Payment session not yet created"),
+    SESSION_CREATED("Payment session created"),
+    FAILED("Payment session could not be created - Cart released");
+
+    private final String displayName;
+
+    CheckoutAttemptStatus(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public boolean isFinal() {
+        return this == SESSION_CREATED || this == FAILED;
+    }
+}
@@ -0,0 +1,21 @@
+package com.kudiapp.kudiapp.enums.productService;
+
+import lombok.Getter;
+
+@Getter
+public enum WebhookEventStatus {
+    RECEIVED("Stored - Waiting to be processed"),
+    RETRY("Processing failed - Waiting for retry"),
+    PROCESSED("Processed"),
+    DEAD("Processing failed too often - Needs manual attention");
+
+    private final String displayName;
+
+    WebhookEventStatus(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public boolean isFinal() {
+        return this == PROCESSED || this == DEAD;
+    }
+}
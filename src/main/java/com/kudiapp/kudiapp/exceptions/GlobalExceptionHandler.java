@@ -3,6 +3,8 @@ package com.kudiapp.kudiapp.exceptions;
 import com.kudiapp.kudiapp.dto.GenericResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -127,6 +129,20 @@ public class GlobalExceptionHandler {
                 );
     }
 
+    @ExceptionHandler(value = TooManyRequestsException.class)
+    public ResponseEntity<GenericResponse> TooManyRequestsExceptionHandler(TooManyRequestsException exception) {
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                .body(
+                        GenericResponse.builder()
+                                .isSuccess(false)
+                                .message(exception.getMessage())
+                                .httpStatus(HttpStatus.TOO_MANY_REQUESTS)
+                                .build()
+                );
+    }
+
     @ExceptionHandler(value = InvalidCredentialsException.class)
     public ResponseEntity<GenericResponse> InvalidCredentialsExceptionHandler(InvalidCredentialsException exception) {
         return ResponseEntity
@@ -254,6 +270,17 @@ public class GlobalExceptionHandler {
                 );
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<GenericResponse> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        log.warn("Concurrent modification: {}", ex.getMessage());
+        GenericResponse response = GenericResponse.builder()
+                .isSuccess(false)
+                .message("The resource was changed by another request, please retry")
+                .httpStatus(HttpStatus.CONFLICT)
+                .build();
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<GenericResponse> handleIllegalArgumentException(IllegalArgumentException ex) {
         GenericResponse response = GenericResponse.builder()
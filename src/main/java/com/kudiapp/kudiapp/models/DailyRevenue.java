@@ -0,0 +1,35 @@
+package com.kudiapp.kudiapp.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Successful payment totals per UTC day and currency.
+ * <p>
+ * Incremented in the same transaction that records a successful {@link Payment},
+ * so revenue queries read one row per day and currency instead of the payments.
+ */
+@Entity
+@Table(name = "daily_revenue")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyRevenue {
+
+    @EmbeddedId
+    private DailyRevenueId id;
+
+    @Column(name = "total_amount", nullable = false, precision = 19, scale = 4)
+    private BigDecimal totalAmount;
+
+    @Column(name = "payment_count", nullable = false)
+    private Long paymentCount;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+}
@@ -0,0 +1,69 @@
+package com.kudiapp.kudiapp.models;
+
+import com.kudiapp.kudiapp.enums.MailStatus;
+import com.kudiapp.kudiapp.models.baseclass.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox record for one email.
+ * <p>
+ * The message is written in the caller's transaction and delivered after commit
+ * by the mail dispatcher. Messages with an HTML body go out as multipart with the
+ * plain body as the text alternative. Both bodies are cleared once the message
+ * is sent, since they usually carry a one-time code.
+ */
+@Entity
+@Table(
+        name = "mail_outbox",
+        indexes = {
+                @Index(name = "idx_mail_outbox_status_next_attempt", columnList = "status, next_attempt_at")
+        }
+)
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(callSuper = true, exclude = {"body", "htmlBody"})
+@EqualsAndHashCode(callSuper = true)
+public class OutboundEmail extends BaseEntity {
+
+    @Column(name = "recipient", nullable = false)
+    private String recipient;
+
+    @Column(name = "subject", nullable = false)
+    private String subject;
+
+    @Column(name = "body", columnDefinition = "TEXT")
+    private String body;
+
+    @Column(name = "html_body", columnDefinition = "TEXT")
+    private String htmlBody;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 30)
+    @Builder.Default
+    private MailStatus status = MailStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    /**
+     * When the poller should pick the message up; for PENDING messages this is
+     * the fallback in case the immediate dispatch was lost, for SENDING messages
+     * the end of the sender's lease
+     */
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+}
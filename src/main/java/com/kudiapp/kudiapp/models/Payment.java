@@ -11,7 +11,12 @@ import java.math.BigDecimal;
 import java.time.Instant;
 
 @Entity
-@Table(name = "payments")
+@Table(
+        name = "payments",
+        indexes = {
+                @Index(name = "idx_payment_status_paid_at", columnList = "status, paid_at")
+        }
+)
 @Data
 @Builder
 @NoArgsConstructor
@@ -19,7 +24,7 @@ import java.time.Instant;
 public class Payment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
 
     @Column(name = "reference", nullable = false, unique = true)
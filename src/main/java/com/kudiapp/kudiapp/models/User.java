@@ -35,6 +35,7 @@ import java.util.Set;
                 @Index(name = "idx_user_verified", columnList = "is_verified"),
                 @Index(name = "idx_user_phone_number", columnList = "phone_number"),
                 @Index(name = "idx_user_last_login_at", columnList = "last_login_at"),
+                // idx_user_created_at (created_at, id) is built concurrently by KeysetPaginationMigration
 
                 @Index(name = "idx_user_enabled_email", columnList = "enabled, email"),
                 @Index(name = "idx_user_email_verified", columnList = "email, is_verified"),
@@ -89,6 +90,14 @@ public class User extends BaseEntity {
     @Column(name = "password_changed_date")
     private Instant passwordChangedDate;
 
+    /**
+     * Access tokens issued before this instant are rejected. Written only by
+     * {@code UserRepository.revokeTokensIssuedBefore}, never by entity updates,
+     * so a stale loaded User cannot reset it.
+     */
+    @Column(name = "tokens_valid_after", updatable = false)
+    private Instant tokensValidAfter;
+
     @Column(name = "account_non_expired", nullable = false)
     private boolean accountNonExpired = true;
 
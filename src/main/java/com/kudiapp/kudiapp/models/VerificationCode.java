@@ -1,8 +1,10 @@
 package com.kudiapp.kudiapp.models;
 
 import com.kudiapp.kudiapp.models.baseclass.BaseEntity;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
 
@@ -13,7 +15,12 @@ import java.time.LocalDateTime;
 @ToString
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "verificationCode")
+@Table(
+        name = "verificationCode",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_verification_code_email", columnNames = "email")
+        }
+)
 @SuperBuilder
 @Entity
 public class VerificationCode extends BaseEntity {
@@ -24,6 +31,10 @@ public class VerificationCode extends BaseEntity {
 
     private LocalDateTime expiresAt;
 
+    // Failed verification attempts against the current code
+    @Column(name = "attempts")
+    private Integer attempts;
+
     public boolean isExpired() {
         return LocalDateTime.now().isAfter(expiresAt);
     }
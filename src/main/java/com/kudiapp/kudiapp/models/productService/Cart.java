@@ -13,6 +13,7 @@ import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -21,6 +22,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.Hibernate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -34,6 +36,7 @@ import java.util.List;
                 @Index(name = "idx_cart_user_id", columnList = "user_id"),
                 @Index(name = "idx_cart_status", columnList = "status"),
                 @Index(name = "idx_cart_reference", columnList = "cart_reference"),
+                @Index(name = "idx_cart_payment_reference", columnList = "payment_reference"),
                 @Index(name = "idx_cart_created_at", columnList = "created_at")
         },
         uniqueConstraints = {
@@ -102,24 +105,50 @@ public class Cart extends BaseEntity {
     @Column(name = "payment_reference", length = 100)
     private String paymentReference;
 
+    // The totals are adjusted in place, so concurrent adds, removes and checkouts on
+    // one cart must not overwrite each other; the default backfills existing rows
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    @Builder.Default
+    private Long version = 0L;
+
+    /**
+     * Adds an order and moves the totals by that order's amounts. An unloaded
+     * orders collection is not loaded; Hibernate queues the add.
+     */
     public void addOrder(Order order) {
         orders.add(order);
         order.setCart(this);
-        updateCartTotals();
+        applyToTotals(order, 1);
     }
 
+    /**
+     * Removes an order and moves the totals back by that order's amounts. An
+     * unloaded orders collection is left unloaded, so the caller must delete the
+     * order itself rather than rely on orphan removal.
+     */
     public void removeOrder(Order order) {
-        orders.remove(order);
+        if (Hibernate.isInitialized(orders)) {
+            orders.remove(order);
+        }
         order.setCart(null);
-        updateCartTotals();
+        applyToTotals(order, -1);
     }
 
     public void clearOrders() {
         orders.forEach(order -> order.setCart(null));
         orders.clear();
-        updateCartTotals();
+        this.itemCount = 0;
+        this.subtotal = BigDecimal.ZERO;
+        this.totalServiceFee = BigDecimal.ZERO;
+        this.totalAmount = BigDecimal.ZERO;
+        this.lastActivityAt = LocalDateTime.now();
     }
 
+    /**
+     * Recomputes the totals from the full orders collection, loading it if needed.
+     * The add and remove paths adjust the totals incrementally instead.
+     */
     public void updateCartTotals() {
         this.itemCount = orders.size();
         
@@ -138,6 +167,21 @@ public class Cart extends BaseEntity {
         this.lastActivityAt = LocalDateTime.now();
     }
 
+    private void applyToTotals(Order order, int sign) {
+        this.itemCount = Math.max(0, this.itemCount + sign);
+        this.subtotal = this.subtotal.add(signed(order.getAmount(), sign));
+        this.totalServiceFee = this.totalServiceFee.add(signed(order.getServiceFee(), sign));
+        this.totalAmount = this.totalAmount.add(signed(order.getTotalAmount(), sign));
+        this.lastActivityAt = LocalDateTime.now();
+    }
+
+    private static BigDecimal signed(BigDecimal value, int sign) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        return sign < 0 ? value.negate() : value;
+    }
+
     public void checkout(String paymentRef) {
         this.status = CartStatus.CHECKOUT_INITIATED;
         this.checkedOutAt = LocalDateTime.now();
@@ -145,6 +189,18 @@ public class Cart extends BaseEntity {
         orders.forEach(order -> order.setIsInCart(false));
     }
 
+    /**
+     * Reverts a checkout whose payment session could not be created
+     */
+    public void reopen() {
+        this.status = CartStatus.ACTIVE;
+        this.checkedOutAt = null;
+        this.paymentReference = null;
+        this.stripeSessionId = null;
+        this.lastActivityAt = LocalDateTime.now();
+        orders.forEach(order -> order.setIsInCart(true));
+    }
+
     public boolean isEmpty() {
         return orders == null || orders.isEmpty();
     }
@@ -0,0 +1,90 @@
+package com.kudiapp.kudiapp.models.productService;
+
+import com.kudiapp.kudiapp.enums.productService.CheckoutAttemptStatus;
+import com.kudiapp.kudiapp.enums.productService.Currency;
+import com.kudiapp.kudiapp.models.baseclass.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.math.BigDecimal;
+
+/**
+ * Outbox record for one cart checkout.
+ * <p>
+ * Written in the same transaction that moves the cart to CHECKOUT_INITIATED,
+ * before the payment provider is called. It holds everything needed to create
+ * the checkout session again, so a checkout interrupted between the local
+ * transactions and the provider call can be completed or released later.
+ */
+@Entity
+@Table(
+        name = "checkout_attempts",
+        indexes = {
+                @Index(name = "idx_checkout_attempt_status_updated", columnList = "status, updated_at"),
+                @Index(name = "idx_checkout_attempt_cart_id", columnList = "cart_id")
+        },
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_checkout_attempt_payment_reference", columnNames = "payment_reference")
+        }
+)
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+public class CheckoutAttempt extends BaseEntity {
+
+    @Column(name = "cart_id", nullable = false)
+    private Long cartId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "cart_reference", nullable = false, length = 50)
+    private String cartReference;
+
+    @Column(name = "payment_reference", nullable = false, length = 100)
+    private String paymentReference;
+
+    @Column(name = "amount", nullable = false, precision = 19, scale = 4)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "currency", nullable = false, length = 10)
+    private Currency currency;
+
+    @Column(name = "success_url", nullable = false, length = 500)
+    private String successUrl;
+
+    @Column(name = "cancel_url", nullable = false, length = 500)
+    private String cancelUrl;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 30)
+    @Builder.Default
+    private CheckoutAttemptStatus status = CheckoutAttemptStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "stripe_session_id")
+    private String stripeSessionId;
+
+    @Column(name = "checkout_url", columnDefinition = "TEXT")
+    private String checkoutUrl;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    /**
+     * Idempotency key for the provider call, identical on every retry so that a
+     * session created by an earlier, unrecorded call is returned again
+     */
+    public String idempotencyKey() {
+        return "checkout-" + paymentReference;
+    }
+}
@@ -39,6 +39,8 @@ import java.util.Map;
                 @Index(name = "idx_order_cart_id", columnList = "cart_id"),
                 @Index(name = "idx_order_service_product", columnList = "service_product_id"),
                 @Index(name = "idx_order_created_at", columnList = "created_at")
+                // The keyset paging indexes idx_order_status_action_created and idx_order_user_created
+                // are built concurrently by KeysetPaginationMigration, so the schema tool must not create them
         }
 )
 @Getter
@@ -0,0 +1,69 @@
+package com.kudiapp.kudiapp.models.productService;
+
+import com.kudiapp.kudiapp.enums.productService.WebhookEventStatus;
+import com.kudiapp.kudiapp.models.baseclass.BaseEntity;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Inbox record for one verified Stripe webhook delivery.
+ * <p>
+ * The raw payload is stored before the webhook is acknowledged, and processed
+ * afterwards on the webhook executor. Failed events are retried with backoff
+ * until they are processed or marked DEAD. The Stripe event id is unique, so a
+ * redelivered event is never stored or processed twice.
+ */
+@Entity
+@Table(
+        name = "webhook_events",
+        indexes = {
+                @Index(name = "idx_webhook_event_status_next_attempt", columnList = "status, next_attempt_at")
+        },
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_webhook_event_event_id", columnNames = "event_id")
+        }
+)
+@Getter
+@Setter
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(callSuper = true, exclude = "payload")
+@EqualsAndHashCode(callSuper = true)
+public class WebhookEvent extends BaseEntity {
+
+    // Stripe's event id (evt_...)
+    @Column(name = "event_id", nullable = false)
+    private String eventId;
+
+    @Column(name = "event_type", nullable = false, length = 100)
+    private String eventType;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 30)
+    @Builder.Default
+    private WebhookEventStatus status = WebhookEventStatus.RECEIVED;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    /**
+     * When the poller should pick the event up; for RECEIVED events this is the
+     * fallback in case the immediate dispatch was lost
+     */
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+}
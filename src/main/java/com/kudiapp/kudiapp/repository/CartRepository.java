@@ -1,8 +1,13 @@
 package com.kudiapp.kudiapp.repository;
 
+import com.kudiapp.kudiapp.dto.productService.CartPaymentState;
 import com.kudiapp.kudiapp.enums.productService.CartStatus;
 import com.kudiapp.kudiapp.models.productService.Cart;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -21,6 +26,14 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
     @Query("SELECT c FROM Cart c WHERE c.userId = :userId AND c.status = 'ACTIVE'")
     Optional<Cart> findActiveCartByUserId(@Param("userId") Long userId);
 
+    /**
+     * Active cart with its orders loaded in the same query, for paths that
+     * work on every order in the cart (clear, checkout)
+     */
+    @EntityGraph(attributePaths = "orders")
+    @Query("SELECT c FROM Cart c WHERE c.userId = :userId AND c.status = 'ACTIVE'")
+    Optional<Cart> findActiveCartWithOrdersByUserId(@Param("userId") Long userId);
+
     List<Cart> findByUserId(Long userId);
 
     List<Cart> findByStatus(CartStatus status);
@@ -38,4 +51,42 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
     boolean existsByCartReference(String cartReference);
 
     Optional<Cart> findByPaymentReference(String paymentReference);
+
+    @Query("SELECT new com.kudiapp.kudiapp.dto.productService.CartPaymentState(" +
+           "c.id, c.paymentReference, c.status, c.totalAmount, c.currency) " +
+           "FROM Cart c WHERE c.paymentReference = :paymentReference")
+    Optional<CartPaymentState> findPaymentStateByPaymentReference(@Param("paymentReference") String paymentReference);
+
+    /**
+     * Loads the cart with a row lock, so that concurrent payment events for the
+     * same cart are applied one after the other
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Cart c WHERE c.paymentReference = :paymentReference")
+    Optional<Cart> findByPaymentReferenceForUpdate(@Param("paymentReference") String paymentReference);
+
+    /**
+     * Recomputes the totals of active carts idle since before the cutoff from
+     * their orders, writing only carts whose stored totals differ. The version is
+     * bumped so that a transaction holding the cart from before the correction
+     * fails instead of writing its stale totals back
+     *
+     * @return number of carts corrected
+     */
+    @Modifying
+    @Query(value = "UPDATE carts c SET item_count = t.item_count, subtotal = t.subtotal, " +
+                   "total_service_fee = t.total_service_fee, total_amount = t.total_amount, " +
+                   "version = c.version + 1 " +
+                   "FROM (SELECT ac.id, COUNT(o.id) AS item_count, " +
+                   "COALESCE(SUM(o.amount), 0) AS subtotal, " +
+                   "COALESCE(SUM(o.service_fee), 0) AS total_service_fee, " +
+                   "COALESCE(SUM(o.total_amount), 0) AS total_amount " +
+                   "FROM carts ac LEFT JOIN orders o ON o.cart_id = ac.id " +
+                   "WHERE ac.status = 'ACTIVE' AND ac.last_activity_at < :cutoff " +
+                   "GROUP BY ac.id) t " +
+                   "WHERE c.id = t.id AND c.last_activity_at < :cutoff " +
+                   "AND (c.item_count <> t.item_count OR c.subtotal <> t.subtotal " +
+                   "OR c.total_service_fee <> t.total_service_fee OR c.total_amount <> t.total_amount)",
+           nativeQuery = true)
+    int reconcileIdleActiveCartTotals(@Param("cutoff") LocalDateTime cutoff);
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.kudiapp.kudiapp.repository;
+
+import com.kudiapp.kudiapp.enums.productService.CheckoutAttemptStatus;
+import com.kudiapp.kudiapp.models.productService.CheckoutAttempt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CheckoutAttemptRepository extends JpaRepository<CheckoutAttempt, Long> {
+
+    Optional<CheckoutAttempt> findByPaymentReference(String paymentReference);
+
+    /**
+     * Oldest attempts in the given status not touched since the cutoff,
+     * used by the checkout recovery job
+     */
+    List<CheckoutAttempt> findTop50ByStatusAndUpdatedAtBeforeOrderByUpdatedAtAsc(
+            CheckoutAttemptStatus status,
+            LocalDateTime cutoff
+    );
+}
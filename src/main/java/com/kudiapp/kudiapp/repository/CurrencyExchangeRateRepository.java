@@ -32,6 +32,8 @@ public interface CurrencyExchangeRateRepository extends JpaRepository<CurrencyEx
             Currency toCurrency
     );
 
+    List<CurrencyExchangeRate> findByIsActiveTrue();
+
     @Query("SELECT cer FROM CurrencyExchangeRate cer " +
            "WHERE cer.isActive = true " +
            "AND cer.effectiveDate <= CURRENT_TIMESTAMP " +
@@ -0,0 +1,47 @@
+package com.kudiapp.kudiapp.repository;
+
+import com.kudiapp.kudiapp.dto.productService.DailyRevenueResponse;
+import com.kudiapp.kudiapp.dto.productService.RevenueByCurrency;
+import com.kudiapp.kudiapp.models.DailyRevenue;
+import com.kudiapp.kudiapp.models.DailyRevenueId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyRevenueRepository extends JpaRepository<DailyRevenue, DailyRevenueId> {
+
+    /**
+     * Adds one successful payment to its day's total, creating the row if needed
+     */
+    @Modifying
+    @Query(value = "INSERT INTO daily_revenue (revenue_date, currency, total_amount, payment_count, updated_at) " +
+                   "VALUES (:revenueDate, :currency, :amount, 1, now()) " +
+                   "ON CONFLICT (revenue_date, currency) DO UPDATE SET " +
+                   "total_amount = daily_revenue.total_amount + EXCLUDED.total_amount, " +
+                   "payment_count = daily_revenue.payment_count + 1, " +
+                   "updated_at = now()",
+           nativeQuery = true)
+    void addPayment(@Param("revenueDate") LocalDate revenueDate,
+                    @Param("currency") String currency,
+                    @Param("amount") BigDecimal amount);
+
+    @Query("SELECT new com.kudiapp.kudiapp.dto.productService.DailyRevenueResponse(" +
+           "d.id.revenueDate, d.id.currency, d.totalAmount, d.paymentCount) " +
+           "FROM DailyRevenue d WHERE d.id.revenueDate BETWEEN :from AND :to " +
+           "AND (:currency IS NULL OR d.id.currency = :currency) " +
+           "ORDER BY d.id.revenueDate ASC, d.id.currency ASC")
+    List<DailyRevenueResponse> findDaily(@Param("from") LocalDate from,
+                                         @Param("to") LocalDate to,
+                                         @Param("currency") String currency);
+
+    @Query("SELECT new com.kudiapp.kudiapp.dto.productService.RevenueByCurrency(d.id.currency, SUM(d.totalAmount)) " +
+           "FROM DailyRevenue d GROUP BY d.id.currency ORDER BY d.id.currency")
+    List<RevenueByCurrency> sumByCurrency();
+}
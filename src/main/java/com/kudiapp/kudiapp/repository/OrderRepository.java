@@ -1,5 +1,7 @@
 package com.kudiapp.kudiapp.repository;
 
+import com.kudiapp.kudiapp.dto.productService.CartOrderSummary;
+import com.kudiapp.kudiapp.dto.productService.OrderStatusActionCount;
 import com.kudiapp.kudiapp.enums.productService.OrderAction;
 import com.kudiapp.kudiapp.enums.productService.OrderStatus;
 import com.kudiapp.kudiapp.models.productService.Order;
@@ -11,6 +13,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -62,6 +65,14 @@ public interface OrderRepository extends
     @Query("SELECT COUNT(o) FROM Order o WHERE o.action IN :actions")
     Long countByActionIn(@Param("actions") List<OrderAction> actions);
 
+    /**
+     * Order counts for every (status, action) combination in one scan,
+     * used to build the admin statistics
+     */
+    @Query("SELECT new com.kudiapp.kudiapp.dto.productService.OrderStatusActionCount(o.status, o.action, COUNT(o)) " +
+           "FROM Order o GROUP BY o.status, o.action")
+    List<OrderStatusActionCount> countGroupedByStatusAndAction();
+
     boolean existsByOrderReference(String orderReference);
 
     Optional<Order> findByPaymentReference(String paymentReference);
@@ -69,6 +80,16 @@ public interface OrderRepository extends
     @Query("SELECT o FROM Order o WHERE o.cart.id = :cartId")
     List<Order> findByCartId(@Param("cartId") Long cartId);
 
+    /**
+     * Summary columns of the orders in the given carts, for cart responses
+     * that do not need the full order rows
+     */
+    @Query("SELECT new com.kudiapp.kudiapp.dto.productService.CartOrderSummary(" +
+           "o.cart.id, o.id, o.orderReference, o.serviceProductName, o.servicePlanName, " +
+           "o.amount, o.serviceFee, o.totalAmount, o.amountCurrency) " +
+           "FROM Order o WHERE o.cart.id IN :cartIds ORDER BY o.id")
+    List<CartOrderSummary> findSummariesByCartIdIn(@Param("cartIds") Collection<Long> cartIds);
+
     /**
      * Count orders by service plan ID
      * Used to check if a plan can be deleted
@@ -0,0 +1,53 @@
+package com.kudiapp.kudiapp.repository;
+
+import com.kudiapp.kudiapp.enums.MailStatus;
+import com.kudiapp.kudiapp.models.OutboundEmail;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboundEmailRepository extends JpaRepository<OutboundEmail, Long> {
+
+    /**
+     * Locks the messages among the given ids that may be sent now: PENDING ones,
+     * and ones in the given statuses whose next attempt or lease is due. Rows
+     * locked by another sender are skipped rather than waited for
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT m FROM OutboundEmail m WHERE m.id IN :ids " +
+           "AND (m.status = com.kudiapp.kudiapp.enums.MailStatus.PENDING " +
+           "OR (m.status IN :dueStatuses AND m.nextAttemptAt <= :now))")
+    List<OutboundEmail> findClaimableForUpdate(@Param("ids") Collection<Long> ids,
+                                               @Param("dueStatuses") Collection<MailStatus> dueStatuses,
+                                               @Param("now") LocalDateTime now);
+
+    /**
+     * Messages in the given statuses that are due, oldest first
+     */
+    List<OutboundEmail> findTop100ByStatusInAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+            Collection<MailStatus> statuses,
+            LocalDateTime now
+    );
+
+    @Modifying
+    @Query("UPDATE OutboundEmail m SET m.status = com.kudiapp.kudiapp.enums.MailStatus.SENT, " +
+           "m.sentAt = :now, m.updatedAt = :now, m.attempts = m.attempts + 1, m.body = NULL, " +
+           "m.htmlBody = NULL, m.nextAttemptAt = NULL, m.lastError = NULL WHERE m.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    long countByStatusIn(Collection<MailStatus> statuses);
+
+    long countByStatus(MailStatus status);
+}
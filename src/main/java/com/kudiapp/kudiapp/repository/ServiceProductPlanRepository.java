@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +26,9 @@ public interface ServiceProductPlanRepository extends
 
     List<ServiceProductPlan> findByServiceProductId(Long serviceProductId);
 
+    @Query("SELECT spp FROM ServiceProductPlan spp LEFT JOIN FETCH spp.productPrice WHERE spp.id IN :ids")
+    List<ServiceProductPlan> findAllWithPriceByIdIn(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT spp FROM ServiceProductPlan spp WHERE spp.serviceProduct.id = :productId " +
            "AND spp.status = :status ORDER BY spp.displayOrder ASC, spp.createdAt DESC")
     List<ServiceProductPlan> findActiveProductPlansOrdered(
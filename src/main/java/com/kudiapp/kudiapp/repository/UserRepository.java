@@ -2,13 +2,49 @@ package com.kudiapp.kudiapp.repository;
 
 import com.kudiapp.kudiapp.models.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
     Optional<User> findByEmail(String email);
+
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.email = :email")
+    Optional<User> findWithRolesByEmail(@Param("email") String email);
+
+    @Query("SELECT u.email FROM User u WHERE u.id = :id")
+    Optional<String> findEmailById(@Param("id") Long id);
+
+    /**
+     * @return the user's token cut-off, {@code none} if the user has none, or
+     * empty if the user does not exist
+     */
+    @Query("SELECT COALESCE(u.tokensValidAfter, :none) FROM User u WHERE u.id = :id")
+    Optional<Instant> findTokensValidAfterById(@Param("id") Long id, @Param("none") Instant none);
+
+    @Query("SELECT u.id AS userId, u.tokensValidAfter AS tokensValidAfter FROM User u " +
+           "WHERE u.tokensValidAfter > :since")
+    List<TokenCutoff> findTokenCutoffsSince(@Param("since") Instant since);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.tokensValidAfter = :cutoff WHERE u.id = :id")
+    int revokeTokensIssuedBefore(@Param("id") Long id, @Param("cutoff") Instant cutoff);
+
     Boolean existsByEmail(String email);
         Optional<User> findByEmailIgnoreCase(String email);
-}
\ No newline at end of file
+
+    interface TokenCutoff {
+        Long getUserId();
+
+        Instant getTokensValidAfter();
+    }
+}
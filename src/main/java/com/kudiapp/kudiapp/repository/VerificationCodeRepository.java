@@ -1,8 +1,24 @@
 package com.kudiapp.kudiapp.repository;
 
 import com.kudiapp.kudiapp.models.VerificationCode;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
 
 public interface VerificationCodeRepository extends JpaRepository<VerificationCode, Long> {
     VerificationCode findByEmail(String email);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM VerificationCode v WHERE v.email = :email")
+    Optional<VerificationCode> findByEmailForUpdate(@Param("email") String email);
+
+    @Modifying
+    @Query("DELETE FROM VerificationCode v WHERE v.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
 }
@@ -0,0 +1,44 @@
+package com.kudiapp.kudiapp.repository;
+
+import com.kudiapp.kudiapp.enums.productService.WebhookEventStatus;
+import com.kudiapp.kudiapp.models.productService.WebhookEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WebhookEventRepository extends JpaRepository<WebhookEvent, Long> {
+
+    boolean existsByEventId(String eventId);
+
+    /**
+     * Loads the event with a row lock, so concurrent processors of the same
+     * event run one after the other
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM WebhookEvent w WHERE w.id = :id")
+    Optional<WebhookEvent> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Events in the given statuses that are due, oldest first
+     */
+    List<WebhookEvent> findTop100ByStatusInAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+            Collection<WebhookEventStatus> statuses,
+            LocalDateTime now
+    );
+
+    long countByStatusIn(Collection<WebhookEventStatus> statuses);
+
+    long countByStatus(WebhookEventStatus status);
+
+    @Query("SELECT MIN(w.createdAt) FROM WebhookEvent w WHERE w.status IN :statuses")
+    LocalDateTime findOldestCreatedAtByStatusIn(@Param("statuses") Collection<WebhookEventStatus> statuses);
+}
@@ -1,10 +1,15 @@
 package com.kudiapp.kudiapp.services;
 
+import com.kudiapp.kudiapp.enums.EmailTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+
 @Component
 public interface EmailService {
     void sendOtp(String to, String subject, String text);
+
+    void sendTemplate(String to, EmailTemplate template, Map<String, Object> variables);
 ////    void sendEmail(String to, String subject, String text);
 //    GenericResponse verifyEmail(String encodedToken);
 //
@@ -0,0 +1,33 @@
+package com.kudiapp.kudiapp.services;
+
+import com.kudiapp.kudiapp.enums.OtpVerificationResult;
+
+import java.time.Duration;
+
+/**
+ * Holds the pending one-time code for each email address.
+ * <p>
+ * Selected with {@code app.otp.store}: {@code memory} (the default) keeps codes
+ * in an expiring in-process cache, {@code jpa} keeps them in the
+ * verification code table so they survive restarts and are shared between
+ * instances.
+ */
+public interface OtpStore {
+
+    /**
+     * Stores a new code for the email, replacing any previous code and its
+     * failed attempts
+     */
+    void save(String email, String code);
+
+    /**
+     * Checks a submitted code. A matching code is consumed, and a code that has
+     * been guessed wrong too often is discarded.
+     */
+    OtpVerificationResult verify(String email, String code);
+
+    /**
+     * @return how long a stored code stays valid
+     */
+    Duration ttl();
+}
@@ -9,7 +9,7 @@ import org.springframework.web.multipart.MultipartFile;
 @Component
 public interface UserService {
 
-    GenericResponse getAllUsers(int page, int size);
+    GenericResponse getAllUsers(int page, int size, String after);
 
     GenericResponse getUserById(Long id);
 
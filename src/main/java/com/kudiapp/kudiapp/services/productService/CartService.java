@@ -1,6 +1,7 @@
 package com.kudiapp.kudiapp.services.productService;
 
 import com.kudiapp.kudiapp.dto.GenericResponse;
+import com.kudiapp.kudiapp.models.productService.Cart;
 
 /**
  * Service interface for managing shopping carts
@@ -14,6 +15,14 @@ public interface CartService {
      */
     GenericResponse getOrCreateCart();
 
+    /**
+     * Get the user's active cart, creating an empty one if there is none
+     *
+     * @param userId The ID of the cart owner
+     * @return The active cart
+     */
+    Cart findOrCreateActiveCart(Long userId);
+
     /**
      * Get active cart for current user
      * 
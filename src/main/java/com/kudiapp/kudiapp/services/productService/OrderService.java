@@ -1,11 +1,14 @@
 package com.kudiapp.kudiapp.services.productService;
 
 import com.kudiapp.kudiapp.dto.GenericResponse;
+import com.kudiapp.kudiapp.dto.productService.BatchOrderRequestDto;
 import com.kudiapp.kudiapp.dto.productService.OrderRequestDto;
 import com.kudiapp.kudiapp.enums.productService.OrderAction;
 import com.kudiapp.kudiapp.enums.productService.OrderStatus;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
+
 /**
  * Service interface for managing orders
  */
@@ -19,6 +22,14 @@ public interface OrderService {
      */
     GenericResponse createOrder(OrderRequestDto request);
 
+    /**
+     * Create several orders in one pricing pass and add them to the active cart
+     * 
+     * @param request The batch of service request DTOs
+     * @return GenericResponse containing the created orders and the cart they were added to
+     */
+    GenericResponse createOrdersBatch(BatchOrderRequestDto request);
+
     /**
      * Get order by ID
      * 
@@ -38,10 +49,12 @@ public interface OrderService {
     /**
      * Get all orders for the current user
      * 
+     * @param after Keyset cursor; when present (empty for the first page) a cursor page
+     *              is returned instead of an offset page
      * @param pageable Pagination parameters
      * @return GenericResponse containing paginated orders
      */
-    GenericResponse getUserOrders(Pageable pageable);
+    GenericResponse getUserOrders(String after, Pageable pageable);
 
     /**
      * Get user orders filtered by status
@@ -57,12 +70,23 @@ public interface OrderService {
      * 
      * @param status Optional status filter
      * @param action Optional action filter
+     * @param createdFrom Optional inclusive lower bound on creation time
+     * @param createdTo Optional exclusive upper bound on creation time
+     * @param serviceProductId Optional service product filter
+     * @param userId Optional user filter
+     * @param after Keyset cursor; when present (empty for the first page) a cursor page
+     *              is returned instead of an offset page
      * @param pageable Pagination parameters
      * @return GenericResponse containing paginated orders
      */
     GenericResponse getAllOrders(
-            OrderStatus status, 
-            OrderAction action, 
+            OrderStatus status,
+            OrderAction action,
+            LocalDateTime createdFrom,
+            LocalDateTime createdTo,
+            Long serviceProductId,
+            Long userId,
+            String after,
             Pageable pageable
     );
 
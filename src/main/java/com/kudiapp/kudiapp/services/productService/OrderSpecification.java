@@ -0,0 +1,116 @@
+package com.kudiapp.kudiapp.services.productService;
+
+import com.kudiapp.kudiapp.enums.productService.OrderAction;
+import com.kudiapp.kudiapp.enums.productService.OrderStatus;
+import com.kudiapp.kudiapp.models.productService.Order;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * JPA Specifications for filtering Order entities
+ * Used by the admin order listing, backed by the composite indexes on orders
+ */
+public class OrderSpecification {
+
+    /**
+     * Filter by status
+     * Returns all orders if status is null
+     */
+    public static Specification<Order> hasStatus(OrderStatus status) {
+        return (Root<Order> root, CriteriaQuery<?> query, CriteriaBuilder cb) -> {
+            if (status == null) {
+                return cb.conjunction();
+            }
+            return cb.equal(root.get("status"), status);
+        };
+    }
+
+    /**
+     * Filter by admin action
+     * Returns all orders if action is null
+     */
+    public static Specification<Order> hasAction(OrderAction action) {
+        return (Root<Order> root, CriteriaQuery<?> query, CriteriaBuilder cb) -> {
+            if (action == null) {
+                return cb.conjunction();
+            }
+            return cb.equal(root.get("action"), action);
+        };
+    }
+
+    /**
+     * Filter by ordering user
+     * Returns all orders if userId is null
+     */
+    public static Specification<Order> hasUserId(Long userId) {
+        return (Root<Order> root, CriteriaQuery<?> query, CriteriaBuilder cb) -> {
+            if (userId == null) {
+                return cb.conjunction();
+            }
+            return cb.equal(root.get("userId"), userId);
+        };
+    }
+
+    /**
+     * Filter by service product
+     * Returns all orders if serviceProductId is null
+     */
+    public static Specification<Order> hasServiceProductId(Long serviceProductId) {
+        return (Root<Order> root, CriteriaQuery<?> query, CriteriaBuilder cb) -> {
+            if (serviceProductId == null) {
+                return cb.conjunction();
+            }
+            return cb.equal(root.get("serviceProductId"), serviceProductId);
+        };
+    }
+
+    /**
+     * Orders created at or after the given time (inclusive)
+     * No lower bound if from is null
+     */
+    public static Specification<Order> createdFrom(LocalDateTime from) {
+        return (Root<Order> root, CriteriaQuery<?> query, CriteriaBuilder cb) -> {
+            if (from == null) {
+                return cb.conjunction();
+            }
+            return cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+        };
+    }
+
+    /**
+     * Orders created before the given time (exclusive)
+     * No upper bound if to is null
+     */
+    public static Specification<Order> createdBefore(LocalDateTime to) {
+        return (Root<Order> root, CriteriaQuery<?> query, CriteriaBuilder cb) -> {
+            if (to == null) {
+                return cb.conjunction();
+            }
+            return cb.lessThan(root.get("createdAt"), to);
+        };
+    }
+
+    /**
+     * Combine the admin listing filters using AND logic
+     */
+    public static Specification<Order> combineFilters(
+            OrderStatus status,
+            OrderAction action,
+            LocalDateTime from,
+            LocalDateTime to,
+            Long serviceProductId,
+            Long userId) {
+
+        return Specification
+                .where(hasStatus(status))
+                .and(hasAction(action))
+                .and(createdFrom(from))
+                .and(createdBefore(to))
+                .and(hasServiceProductId(serviceProductId))
+                .and(hasUserId(userId));
+    }
+}
@@ -0,0 +1,50 @@
+package com.kudiapp.kudiapp.services.productService;
+
+import com.kudiapp.kudiapp.enums.productService.Currency;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The payment provider calls made on the checkout and payment paths.
+ * <p>
+ * Implementations bound every call in time and throw
+ * {@link com.kudiapp.kudiapp.exceptions.PaymentGatewayException} on failure,
+ * including when the provider is considered unavailable. Callers must not hold
+ * a database transaction while calling them.
+ */
+public interface PaymentGateway {
+
+    CheckoutSession createCheckoutSession(CheckoutSessionRequest request);
+
+    /**
+     * @return the provider status (e.g. "succeeded") of the payment carrying the
+     * given reference, or empty if the provider has none. The reference must be one of ours.
+     */
+    Optional<String> findPaymentStatus(String reference);
+
+    /**
+     * @return false while calls are being refused without reaching the provider
+     */
+    default boolean isAvailable() {
+        return true;
+    }
+
+    /**
+     * @param idempotencyKey optional; when null every call is a new request
+     */
+    record CheckoutSessionRequest(
+            String idempotencyKey,
+            BigDecimal amount,
+            Currency currency,
+            String productName,
+            String successUrl,
+            String cancelUrl,
+            Map<String, String> metadata
+    ) {
+    }
+
+    record CheckoutSession(String id, String url) {
+    }
+}
@@ -3,6 +3,10 @@ package com.kudiapp.kudiapp.services.productService;
 import com.kudiapp.kudiapp.dto.GenericResponse;
 import com.kudiapp.kudiapp.dto.request.payment.InitPaymentRequest;
 import com.kudiapp.kudiapp.dto.request.payment.InitPaymentResponse;
+import com.stripe.model.Event;
+
+import java.time.LocalDate;
+import java.util.Optional;
 
 public interface PaymentService {
 
@@ -10,7 +14,22 @@ public interface PaymentService {
 
     GenericResponse verifyPayment(String reference);
 
-    boolean isSignatureValid(String payload, String signatureHeader);
+    /**
+     * Verifies the Stripe signature over the exact webhook body
+     *
+     * @return the parsed event, or empty if the signature is invalid
+     */
+    Optional<Event> verifyWebhook(String payload, String signatureHeader);
+
+    /**
+     * Stores a verified webhook payload for asynchronous processing
+     */
+    void receiveWebhook(String payload, Event event);
 
-    void processWebhookAsync(String payload);
+    /**
+     * Successful payment totals per day and currency, from the daily revenue rollup
+     *
+     * @param currency optional currency filter
+     */
+    GenericResponse getDailyRevenue(LocalDate from, LocalDate to, String currency);
 }
@@ -23,6 +23,7 @@ public interface ServiceProductService {
             PRODUCT_TITLE title,
             UrgencyType urgency,
             ServiceProductStatus status,
+            String after,
             Pageable pageable
     );
 
@@ -1,12 +1,15 @@
 package com.kudiapp.kudiapp.services.serviceImpl;
 
+import com.kudiapp.kudiapp.config.security.AuthRateLimiter;
 import com.kudiapp.kudiapp.config.security.UserDetailsImpl;
 import com.kudiapp.kudiapp.config.security.jwt.JwtUtils;
+import com.kudiapp.kudiapp.config.security.jwt.TokenRevocationRegistry;
 import com.kudiapp.kudiapp.dto.GenericResponse;
 import com.kudiapp.kudiapp.dto.request.authDTOS.*;
 import com.kudiapp.kudiapp.dto.response.LoginResponseDto;
 import com.kudiapp.kudiapp.dto.token.RefreshTokenRequest;
 import com.kudiapp.kudiapp.dto.token.TokenRefreshResponse;
+import com.kudiapp.kudiapp.enums.AuthRateLimitRule;
 import com.kudiapp.kudiapp.exceptions.*;
 import com.kudiapp.kudiapp.models.NewsLetter;
 import com.kudiapp.kudiapp.models.RefreshToken;
@@ -59,8 +62,11 @@ public class AuthServiceImpl implements AuthService {
     private final NewsLetterRepository newsLetterRepository;
     private final SecurityUtil securityUtil;
     private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final AuthRateLimiter authRateLimiter;
+    private final LoginAttemptTracker loginAttemptTracker;
 
-    public AuthServiceImpl(AuthenticationManager authenticationManager, UserDetailsService userDetailsService, UserRepository userRepository, VerificationCodeService verificationCodeService, EmailService emailService, RoleRepository roleRepository, PasswordEncoder passwordEncoder, JwtUtils jwtUtils, NewsLetterRepository newsLetterRepository, SecurityUtil securityUtil, RefreshTokenService refreshTokenService) {
+    public AuthServiceImpl(AuthenticationManager authenticationManager, UserDetailsService userDetailsService, UserRepository userRepository, VerificationCodeService verificationCodeService, EmailService emailService, RoleRepository roleRepository, PasswordEncoder passwordEncoder, JwtUtils jwtUtils, NewsLetterRepository newsLetterRepository, SecurityUtil securityUtil, RefreshTokenService refreshTokenService, TokenRevocationRegistry tokenRevocationRegistry, AuthRateLimiter authRateLimiter, LoginAttemptTracker loginAttemptTracker) {
         this.authenticationManager = authenticationManager;
         this.userDetailsService = userDetailsService;
         this.userRepository = userRepository;
@@ -72,16 +78,25 @@ public class AuthServiceImpl implements AuthService {
         this.newsLetterRepository = newsLetterRepository;
         this.securityUtil = securityUtil;
         this.refreshTokenService = refreshTokenService;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
+        this.authRateLimiter = authRateLimiter;
+        this.loginAttemptTracker = loginAttemptTracker;
     }
 
     @Override
-    @Transactional
+    // Keeps the account lock written on the failed attempt that triggers it
+    @Transactional(dontRollbackOn = InvalidCredentialsException.class)
     public GenericResponse login(LoginRequest loginRequestDto) {
         validateLoginRequest(loginRequestDto);
+        authRateLimiter.checkEmail(AuthRateLimitRule.LOGIN, loginRequestDto.getEmail());
 
         User userEntity = userRepository.findByEmail(loginRequestDto.getEmail())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
+        if (isLocked(userEntity)) {
+            throw new InvalidCredentialsException("Account is temporarily locked, please try again later");
+        }
+
         if (userEntity.isEnable2Fa()) {
             sendOtpAndNotify(userEntity);
             return createOtpSentResponse();
@@ -181,6 +196,7 @@ public class AuthServiceImpl implements AuthService {
     }
 
     @Override
+    @Transactional
     public GenericResponse refreshToken(RefreshTokenRequest request) {
         String requestRefreshToken = request.getRefreshToken();
 
@@ -188,7 +204,7 @@ public class AuthServiceImpl implements AuthService {
                 .map(refreshTokenService::verifyExpiration)
                 .map(RefreshToken::getUser)
                 .map(user -> {
-                    String newAccessToken = jwtUtils.generateTokenFromUsername(user.getEmail());
+                    String newAccessToken = jwtUtils.generateTokenFromUser(user);
 
                     TokenRefreshResponse tokenResponse = new TokenRefreshResponse(newAccessToken, requestRefreshToken);
 
@@ -288,6 +304,7 @@ public class AuthServiceImpl implements AuthService {
         }
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         userRepository.save(user);
+        tokenRevocationRegistry.revokeAllForUser(user.getId());
 
         return GenericResponse.builder()
                 .isSuccess(true)
@@ -303,6 +320,7 @@ public class AuthServiceImpl implements AuthService {
             throw  new InvalidCredentialsException("User not found with provided id.");
         }
         userRepository.deleteById(userId);
+        tokenRevocationRegistry.revokeAllForUser(userId);
         return GenericResponse.builder()
                 .isSuccess(true)
                 .message("Account deleted successfully.")
@@ -352,9 +370,27 @@ public class AuthServiceImpl implements AuthService {
         return !passwordEncoder.matches(inputPassword, userEntity.getPassword());
     }
 
+    private boolean isLocked(User userEntity) {
+        return !userEntity.isAccountNonLocked()
+                && (userEntity.getLockedUntil() == null || userEntity.getLockedUntil().isAfter(LocalDateTime.now()));
+    }
+
     private void handleFailedLoginAttempt(User userEntity) {
-        userEntity.incrementFailedLoginAttempts();
+        if (!loginAttemptTracker.isEnabled()) {
+            // Guessing is bounded by the per-email rate limit checked above
+            return;
+        }
+        int failures = loginAttemptTracker.recordFailure(userEntity.getId());
+        if (failures < loginAttemptTracker.getMaxFailures()) {
+            return;
+        }
+        // Only the transition to locked is written, not every failed attempt
+        userEntity.setFailedLoginAttempts(failures);
+        userEntity.lockAccount(loginAttemptTracker.getLockoutMinutes());
         userRepository.save(userEntity);
+        loginAttemptTracker.reset(userEntity.getId());
+        log.warn("Locked user {} for {} minutes after {} failed logins",
+                userEntity.getId(), loginAttemptTracker.getLockoutMinutes(), failures);
     }
 
     private Authentication authenticateUser(LoginRequest loginRequestDto) {
@@ -377,6 +413,11 @@ public class AuthServiceImpl implements AuthService {
     }
 
     private void updateUserLastLogin(User userEntity) {
+        loginAttemptTracker.reset(userEntity.getId());
+        if (userEntity.getFailedLoginAttempts() != 0 || !userEntity.isAccountNonLocked()) {
+            // A lock that ran out is cleared with the same write
+            userEntity.unlockAccount();
+        }
         userEntity.setLastLoginAt(LocalDateTime.now());
         userRepository.save(userEntity);
     }
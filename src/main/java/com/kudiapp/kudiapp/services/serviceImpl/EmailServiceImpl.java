@@ -1,39 +1,51 @@
 package com.kudiapp.kudiapp.services.serviceImpl;
 
+import com.kudiapp.kudiapp.enums.EmailTemplate;
+import com.kudiapp.kudiapp.models.OutboundEmail;
 import com.kudiapp.kudiapp.services.EmailService;
-import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Map;
+
+/**
+ * Writes outgoing mail to the outbox instead of talking to the SMTP server, so
+ * callers never hold a transaction open for the SMTP round trip. The message is
+ * delivered by {@link MailDispatcher} once the caller's transaction commits.
+ * Templated mail is rendered up front, from the precompiled templates in
+ * {@link EmailTemplateRenderer}, and stored with both its text and HTML body.
+ */
 @Slf4j
 @Service
 public class EmailServiceImpl implements EmailService {
 
-    @Value("${spring.mail.username}")
-    private String fromEmail;
-
-    private final JavaMailSender mailSender;
+    private final MailOutbox mailOutbox;
+    private final MailDispatcher mailDispatcher;
+    private final EmailTemplateRenderer templateRenderer;
 
-    public EmailServiceImpl(JavaMailSender mailSender) {
-        this.mailSender = mailSender;
+    public EmailServiceImpl(MailOutbox mailOutbox,
+                            MailDispatcher mailDispatcher,
+                            EmailTemplateRenderer templateRenderer) {
+        this.mailOutbox = mailOutbox;
+        this.mailDispatcher = mailDispatcher;
+        this.templateRenderer = templateRenderer;
     }
 
     @Override
     @Transactional
     public void sendOtp(String to, String subject, String text) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom(fromEmail);
-        message.setTo(to);
-        message.setSubject(subject);
-        message.setText(text);
-        try {
-            mailSender.send(message);
-            log.info("OTP sent successfully to {}", to);
-        } catch (Exception e) {
-            log.error("Failed to send OTP to {}: {}", to, e.getMessage());
-        }
+        OutboundEmail email = mailOutbox.store(to, subject, text);
+        mailDispatcher.dispatchAfterCommit(email.getId());
+        log.info("OTP email to {} queued as {}", to, email.getId());
+    }
+
+    @Override
+    @Transactional
+    public void sendTemplate(String to, EmailTemplate template, Map<String, Object> variables) {
+        EmailTemplateRenderer.RenderedEmail rendered = templateRenderer.render(template, variables);
+        OutboundEmail email = mailOutbox.store(to, rendered.subject(), rendered.text(), rendered.html());
+        mailDispatcher.dispatchAfterCommit(email.getId());
+        log.info("{} email to {} queued as {}", template, to, email.getId());
     }
 }
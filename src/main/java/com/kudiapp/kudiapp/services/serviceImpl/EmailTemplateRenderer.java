@@ -0,0 +1,94 @@
+package com.kudiapp.kudiapp.services.serviceImpl;
+
+import com.kudiapp.kudiapp.enums.EmailTemplate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Renders {@link EmailTemplate}s into an HTML and a plain text body.
+ * <p>
+ * Every template is parsed once when the renderer is created and kept in the
+ * engine's template cache, and SpEL expressions are compiled, so a render only
+ * evaluates the cached template against its variables. Output is written into
+ * a per-thread buffer that is reused across renders.
+ */
+@Component
+@Slf4j
+public class EmailTemplateRenderer {
+
+    private static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+    // Buffers that grew past this are dropped instead of being kept per thread
+    private static final int MAX_POOLED_BUFFER_SIZE = 64 * 1024;
+
+    private final SpringTemplateEngine htmlEngine;
+    private final SpringTemplateEngine textEngine;
+    private final ThreadLocal<StringWriter> buffers =
+            ThreadLocal.withInitial(() -> new StringWriter(INITIAL_BUFFER_SIZE));
+
+    public EmailTemplateRenderer() {
+        this.htmlEngine = engine("templates/", ".html", TemplateMode.HTML);
+        this.textEngine = engine("templates/text/", ".txt", TemplateMode.TEXT);
+        precompile();
+    }
+
+    public RenderedEmail render(EmailTemplate template, Map<String, Object> variables) {
+        Context context = new Context(Locale.ENGLISH, variables);
+        return new RenderedEmail(
+                template.getSubject(),
+                process(textEngine, template, context),
+                process(htmlEngine, template, context)
+        );
+    }
+
+    private String process(SpringTemplateEngine engine, EmailTemplate template, Context context) {
+        StringWriter buffer = buffers.get();
+        buffer.getBuffer().setLength(0);
+        engine.process(template.getTemplateName(), context, buffer);
+        String rendered = buffer.toString();
+        if (buffer.getBuffer().capacity() > MAX_POOLED_BUFFER_SIZE) {
+            buffers.remove();
+        }
+        return rendered;
+    }
+
+    /**
+     * Loads every template into the cache with a dry run, so a missing or broken
+     * template fails startup rather than the first send
+     */
+    private void precompile() {
+        Context empty = new Context(Locale.ENGLISH);
+        for (EmailTemplate template : EmailTemplate.values()) {
+            htmlEngine.process(template.getTemplateName(), empty, Writer.nullWriter());
+            textEngine.process(template.getTemplateName(), empty, Writer.nullWriter());
+        }
+        log.info("Precompiled {} email templates", EmailTemplate.values().length);
+    }
+
+    private static SpringTemplateEngine engine(String prefix, String suffix, TemplateMode mode) {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix(prefix);
+        resolver.setSuffix(suffix);
+        resolver.setTemplateMode(mode);
+        resolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        resolver.setCacheable(true);
+        resolver.setCacheTTLMs(null);
+
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        engine.setEnableSpringELCompiler(true);
+        return engine;
+    }
+
+    public record RenderedEmail(String subject, String text, String html) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.kudiapp.kudiapp.services.serviceImpl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kudiapp.kudiapp.enums.OtpVerificationResult;
+import com.kudiapp.kudiapp.services.OtpStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * OTP store backed by a bounded Caffeine cache.
+ * <p>
+ * Every save is a cache write, so each code expires {@link #ttl()} after it was
+ * issued. Failed attempts are counted on the entry itself, which does not count
+ * as a write and so does not extend its lifetime. Codes are lost on restart,
+ * and each instance sees only the codes it issued.
+ */
+@Component
+@ConditionalOnProperty(name = "app.otp.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOtpStore implements OtpStore {
+
+    private final Cache<String, OtpEntry> codes;
+    private final Duration ttl;
+    private final int maxAttempts;
+
+    public InMemoryOtpStore(@Value("${app.otp.ttl-ms:600000}") long ttlMs,
+                            @Value("${app.otp.max-attempts:5}") int maxAttempts,
+                            @Value("${app.otp.memory.max-size:100000}") long maxSize) {
+        this.ttl = Duration.ofMillis(ttlMs);
+        this.maxAttempts = maxAttempts;
+        this.codes = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public void save(String email, String code) {
+        codes.put(email, new OtpEntry(code, System.currentTimeMillis() + ttl.toMillis()));
+    }
+
+    @Override
+    public OtpVerificationResult verify(String email, String code) {
+        OtpEntry entry = codes.getIfPresent(email);
+        if (entry == null) {
+            return OtpVerificationResult.NOT_FOUND;
+        }
+        if (System.currentTimeMillis() >= entry.expiresAtMs) {
+            codes.asMap().remove(email, entry);
+            return OtpVerificationResult.EXPIRED;
+        }
+        if (entry.matches(code)) {
+            // Only one of several concurrent correct submissions consumes the code
+            return codes.asMap().remove(email, entry)
+                    ? OtpVerificationResult.VERIFIED
+                    : OtpVerificationResult.NOT_FOUND;
+        }
+        if (entry.attempts.incrementAndGet() >= maxAttempts) {
+            codes.asMap().remove(email, entry);
+            return OtpVerificationResult.TOO_MANY_ATTEMPTS;
+        }
+        return OtpVerificationResult.MISMATCH;
+    }
+
+    @Override
+    public Duration ttl() {
+        return ttl;
+    }
+
+    private static final class OtpEntry {
+
+        private final byte[] code;
+        private final long expiresAtMs;
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        private OtpEntry(String code, long expiresAtMs) {
+            this.code = code.getBytes(StandardCharsets.UTF_8);
+            this.expiresAtMs = expiresAtMs;
+        }
+
+        private boolean matches(String submitted) {
+            return submitted != null
+                    && MessageDigest.isEqual(code, submitted.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.kudiapp.kudiapp.services.serviceImpl;
+
+import com.kudiapp.kudiapp.enums.OtpVerificationResult;
+import com.kudiapp.kudiapp.models.VerificationCode;
+import com.kudiapp.kudiapp.repository.VerificationCodeRepository;
+import com.kudiapp.kudiapp.services.OtpStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * OTP store backed by the verification code table, one row per email.
+ * <p>
+ * Verification locks the row, so concurrent attempts for the same email are
+ * counted one after the other. Expired rows are purged periodically.
+ */
+@Component
+@ConditionalOnProperty(name = "app.otp.store", havingValue = "jpa")
+@Slf4j
+public class JpaOtpStore implements OtpStore {
+
+    private final VerificationCodeRepository verificationCodeRepository;
+    private final Duration ttl;
+    private final int maxAttempts;
+
+    public JpaOtpStore(VerificationCodeRepository verificationCodeRepository,
+                       @Value("${app.otp.ttl-ms:600000}") long ttlMs,
+                       @Value("${app.otp.max-attempts:5}") int maxAttempts) {
+        this.verificationCodeRepository = verificationCodeRepository;
+        this.ttl = Duration.ofMillis(ttlMs);
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    @Transactional
+    public void save(String email, String code) {
+        VerificationCode entry = verificationCodeRepository.findByEmailForUpdate(email)
+                .orElseGet(() -> VerificationCode.builder().email(email).build());
+        entry.setCode(code);
+        entry.setAttempts(0);
+        entry.setExpiresAt(LocalDateTime.now().plus(ttl));
+        verificationCodeRepository.save(entry);
+    }
+
+    @Override
+    @Transactional
+    public OtpVerificationResult verify(String email, String code) {
+        Optional<VerificationCode> found = verificationCodeRepository.findByEmailForUpdate(email);
+        if (found.isEmpty()) {
+            return OtpVerificationResult.NOT_FOUND;
+        }
+
+        VerificationCode entry = found.get();
+        if (entry.isExpired()) {
+            verificationCodeRepository.delete(entry);
+            return OtpVerificationResult.EXPIRED;
+        }
+        if (code != null && MessageDigest.isEqual(
+                entry.getCode().getBytes(StandardCharsets.UTF_8), code.getBytes(StandardCharsets.UTF_8))) {
+            verificationCodeRepository.delete(entry);
+            return OtpVerificationResult.VERIFIED;
+        }
+
+        int attempts = (entry.getAttempts() == null ? 0 : entry.getAttempts()) + 1;
+        if (attempts >= maxAttempts) {
+            verificationCodeRepository.delete(entry);
+            return OtpVerificationResult.TOO_MANY_ATTEMPTS;
+        }
+        entry.setAttempts(attempts);
+        return OtpVerificationResult.MISMATCH;
+    }
+
+    @Override
+    public Duration ttl() {
+        return ttl;
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.otp.jpa.purge-interval-ms:3600000}",
+            initialDelayString = "${app.otp.jpa.purge-interval-ms:3600000}"
+    )
+    @Transactional
+    public void purgeExpired() {
+        try {
+            int purged = verificationCodeRepository.deleteExpired(LocalDateTime.now());
+            if (purged > 0) {
+                log.info("Purged {} expired verification codes", purged);
+            }
+        } catch (Exception e) {
+            log.error("Verification code purge failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.kudiapp.kudiapp.services.serviceImpl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts failed logins per user in memory, so a failed password costs no
+ * database write. Only reaching {@code app.auth.lockout.max-failures} within
+ * the failure window changes the user row, by locking the account.
+ * <p>
+ * Lockout is off unless {@code app.auth.lockout.enabled} is set: anyone who
+ * knows an email address can fail its logins on purpose and lock the owner out.
+ * Without it, password guessing is bounded by the per-email login rate limit,
+ * which slows the guesser without denying the owner.
+ */
+@Component
+public class LoginAttemptTracker {
+
+    private final Cache<Long, AtomicInteger> failures;
+
+    @Getter
+    private final boolean enabled;
+
+    @Getter
+    private final int maxFailures;
+
+    @Getter
+    private final int lockoutMinutes;
+
+    public LoginAttemptTracker(@Value("${app.auth.lockout.enabled:false}") boolean enabled,
+                               @Value("${app.auth.lockout.max-failures:5}") int maxFailures,
+                               @Value("${app.auth.lockout.minutes:15}") int lockoutMinutes,
+                               @Value("${app.auth.lockout.failure-window-ms:900000}") long failureWindowMs,
+                               @Value("${app.auth.lockout.max-users:100000}") long maxUsers) {
+        this.enabled = enabled;
+        this.maxFailures = maxFailures;
+        this.lockoutMinutes = lockoutMinutes;
+        this.failures = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(Duration.ofMillis(failureWindowMs))
+                .build();
+    }
+
+    /**
+     * @return the user's failures within the window, including this one
+     */
+    public int recordFailure(Long userId) {
+        return failures.get(userId, id -> new AtomicInteger()).incrementAndGet();
+    }
+
+    public void reset(Long userId) {
+        failures.invalidate(userId);
+    }
+}
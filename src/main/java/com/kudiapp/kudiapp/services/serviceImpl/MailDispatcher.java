@@ -0,0 +1,232 @@
+package com.kudiapp.kudiapp.services.serviceImpl;
+
+import com.kudiapp.kudiapp.models.OutboundEmail;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers outbox messages on the bounded {@code mailExecutor}.
+ * <p>
+ * Message ids are queued once their outbox insert commits. Each worker drains up
+ * to {@code app.mail.batch-size} ids at a time and sends them in one
+ * {@link JavaMailSender#send(MimeMessage...)} call, which reuses a single
+ * SMTP connection for the whole batch. A poller picks up messages that are due
+ * for retry, and messages whose immediate dispatch was lost to a full queue or a
+ * restart. Messages are claimed in the outbox before they are sent, so pollers
+ * on several instances never send the same message at once. Published metrics:
+ * <ul>
+ *     <li>{@code mail.send} - latency of one batch, tagged by outcome</li>
+ *     <li>{@code mail.batch.size} - messages per batch</li>
+ *     <li>{@code mail.queue.depth} - message ids waiting for a worker</li>
+ *     <li>{@code mail.outbox.pending} - messages not yet sent</li>
+ *     <li>{@code mail.outbox.dead} - messages that exhausted their retries</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class MailDispatcher {
+
+    private final MailOutbox mailOutbox;
+    private final JavaMailSender mailSender;
+    private final ThreadPoolTaskExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final String fromEmail;
+    private final int batchSize;
+
+    private final BlockingQueue<Long> queue;
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private final DistributionSummary batchSizes;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong dead = new AtomicLong();
+
+    public MailDispatcher(MailOutbox mailOutbox,
+                          JavaMailSender mailSender,
+                          @Qualifier("mailExecutor") ThreadPoolTaskExecutor executor,
+                          MeterRegistry meterRegistry,
+                          @Value("${spring.mail.username}") String fromEmail,
+                          @Value("${app.mail.batch-size:20}") int batchSize,
+                          @Value("${app.mail.queue-capacity:1000}") int queueCapacity) {
+        this.mailOutbox = mailOutbox;
+        this.mailSender = mailSender;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.fromEmail = fromEmail;
+        this.batchSize = batchSize;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+
+        this.batchSizes = DistributionSummary.builder("mail.batch.size").register(meterRegistry);
+        Gauge.builder("mail.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("mail.outbox.pending", pending, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("mail.outbox.dead", dead, AtomicLong::get).register(meterRegistry);
+    }
+
+    /**
+     * Queues the message once the current transaction commits, or immediately
+     * when called outside a transaction
+     */
+    public void dispatchAfterCommit(Long emailId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(emailId);
+                }
+            });
+        } else {
+            dispatch(emailId);
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.mail.poll-interval-ms:10000}",
+            initialDelayString = "${app.mail.poll-interval-ms:10000}"
+    )
+    public void dispatchDueMessages() {
+        try {
+            mailOutbox.findDue().forEach(email -> dispatch(email.getId()));
+
+            MailOutbox.OutboxStats stats = mailOutbox.stats();
+            pending.set(stats.pending());
+            dead.set(stats.dead());
+        } catch (Exception e) {
+            log.error("Mail outbox poll failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void dispatch(Long emailId) {
+        if (!queued.add(emailId)) {
+            return;
+        }
+        if (!queue.offer(emailId)) {
+            // Left in the outbox, the poller retries it once the queue drains
+            queued.remove(emailId);
+            meterRegistry.counter("mail.dispatch.rejected").increment();
+            log.warn("Mail queue full, deferring email {}", emailId);
+            return;
+        }
+        try {
+            executor.execute(this::drain);
+        } catch (TaskRejectedException e) {
+            // Enough drain tasks are already waiting to pick this id up
+            log.debug("Mail executor busy, email {} stays queued", emailId);
+        }
+    }
+
+    private void drain() {
+        List<Long> batch = new ArrayList<>(batchSize);
+        while (true) {
+            batch.clear();
+            queue.drainTo(batch, batchSize);
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                send(batch);
+            } catch (Exception e) {
+                log.error("Mail batch of {} failed: {}", batch.size(), e.getMessage(), e);
+            } finally {
+                batch.forEach(queued::remove);
+            }
+        }
+    }
+
+    private void send(List<Long> ids) {
+        List<OutboundEmail> emails = new ArrayList<>();
+        List<MimeMessage> messages = new ArrayList<>();
+        for (OutboundEmail email : mailOutbox.claim(ids)) {
+            try {
+                messages.add(toMessage(email));
+                emails.add(email);
+            } catch (MessagingException e) {
+                // Typically a malformed address, recorded like a failed send
+                mailOutbox.recordFailure(List.of(email.getId()), e.getMessage());
+                meterRegistry.counter("mail.failed").increment();
+                log.warn("Could not build email {}: {}", email.getId(), e.getMessage());
+            }
+        }
+        if (emails.isEmpty()) {
+            return;
+        }
+        batchSizes.record(messages.size());
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<Long> sent = new ArrayList<>(emails.size());
+        List<Long> failed = new ArrayList<>();
+        String error = null;
+        try {
+            mailSender.send(messages.toArray(MimeMessage[]::new));
+            emails.forEach(email -> sent.add(email.getId()));
+        } catch (MailSendException e) {
+            // Per-message failures, or every remaining message when the connection broke
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            for (int i = 0; i < emails.size(); i++) {
+                if (failedMessages.isEmpty() || failedMessages.containsKey(messages.get(i))) {
+                    failed.add(emails.get(i).getId());
+                } else {
+                    sent.add(emails.get(i).getId());
+                }
+            }
+            error = e.getMessage();
+        } catch (Exception e) {
+            emails.forEach(email -> failed.add(email.getId()));
+            error = e.getMessage();
+        }
+        sample.stop(meterRegistry.timer("mail.send", "outcome", failed.isEmpty() ? "sent" : "failed"));
+
+        mailOutbox.markSent(sent);
+        meterRegistry.counter("mail.sent").increment(sent.size());
+        if (!failed.isEmpty()) {
+            int deadCount = mailOutbox.recordFailure(failed, error);
+            meterRegistry.counter("mail.failed").increment(failed.size());
+            log.warn("Failed to send {} of {} email(s), {} given up: {}",
+                    failed.size(), emails.size(), deadCount, error);
+        } else {
+            log.info("Sent {} email(s)", sent.size());
+        }
+    }
+
+    /**
+     * Builds a plain text message, or a multipart/alternative one with text and
+     * HTML parts when the email has an HTML body
+     */
+    private MimeMessage toMessage(OutboundEmail email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        boolean multipart = email.getHtmlBody() != null;
+        MimeMessageHelper helper = new MimeMessageHelper(message, multipart, StandardCharsets.UTF_8.name());
+        helper.setFrom(fromEmail);
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        if (multipart) {
+            helper.setText(email.getBody(), email.getHtmlBody());
+        } else {
+            helper.setText(email.getBody());
+        }
+        return message;
+    }
+}
@@ -0,0 +1,169 @@
+package com.kudiapp.kudiapp.services.serviceImpl;
+
+import com.kudiapp.kudiapp.enums.MailStatus;
+import com.kudiapp.kudiapp.models.OutboundEmail;
+import com.kudiapp.kudiapp.repository.OutboundEmailRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Durable outbox for outgoing email.
+ * <p>
+ * {@link #store} joins the caller's transaction, so a message exists exactly
+ * when the change that triggered it commits. Delivery happens later through
+ * {@link MailDispatcher}; failures are recorded here with exponential backoff
+ * until the message is sent or marked DEAD.
+ * <p>
+ * A sender {@link #claim claims} messages before sending them: the rows are
+ * locked with SKIP LOCKED and moved to SENDING with a lease of
+ * {@code app.mail.claim-lease-ms}, so each message is sent by one instance. A
+ * message whose sender died is claimed again once its lease runs out. The
+ * bodies, which can hold one-time codes, are cleared once a message is SENT or
+ * DEAD.
+ */
+@Component
+@Slf4j
+public class MailOutbox {
+
+    static final List<MailStatus> UNSENT_STATUSES =
+            List.of(MailStatus.PENDING, MailStatus.RETRY, MailStatus.SENDING);
+
+    // Claimable once their next attempt time, or for SENDING the lease, has passed
+    private static final List<MailStatus> DUE_STATUSES = List.of(MailStatus.RETRY, MailStatus.SENDING);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboundEmailRepository outboundEmailRepository;
+    private final long dispatchGraceMs;
+    private final long retryBaseMs;
+    private final long retryMaxMs;
+    private final int maxAttempts;
+    private final long claimLeaseMs;
+
+    public MailOutbox(OutboundEmailRepository outboundEmailRepository,
+                      @Value("${app.mail.dispatch-grace-ms:30000}") long dispatchGraceMs,
+                      @Value("${app.mail.retry.base-ms:30000}") long retryBaseMs,
+                      @Value("${app.mail.retry.max-ms:1800000}") long retryMaxMs,
+                      @Value("${app.mail.retry.max-attempts:6}") int maxAttempts,
+                      @Value("${app.mail.claim-lease-ms:300000}") long claimLeaseMs) {
+        this.outboundEmailRepository = outboundEmailRepository;
+        this.dispatchGraceMs = dispatchGraceMs;
+        this.retryBaseMs = retryBaseMs;
+        this.retryMaxMs = retryMaxMs;
+        this.maxAttempts = maxAttempts;
+        this.claimLeaseMs = claimLeaseMs;
+    }
+
+    @Transactional
+    public OutboundEmail store(String to, String subject, String text) {
+        return store(to, subject, text, null);
+    }
+
+    /**
+     * @param html HTML alternative to the text body, or null for a plain text message
+     */
+    @Transactional
+    public OutboundEmail store(String to, String subject, String text, String html) {
+        return outboundEmailRepository.save(OutboundEmail.builder()
+                .recipient(to)
+                .subject(subject)
+                .body(text)
+                .htmlBody(html)
+                .nextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(dispatchGraceMs)))
+                .build());
+    }
+
+    /**
+     * Claims the messages among the given ids that still need to be sent and
+     * are not held by another sender
+     *
+     * @return the claimed messages, which the caller must mark sent or failed
+     */
+    @Transactional
+    public List<OutboundEmail> claim(Collection<Long> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseEnd = now.plus(Duration.ofMillis(claimLeaseMs));
+
+        List<OutboundEmail> emails = outboundEmailRepository.findClaimableForUpdate(ids, DUE_STATUSES, now);
+        for (OutboundEmail email : emails) {
+            email.setStatus(MailStatus.SENDING);
+            email.setNextAttemptAt(leaseEnd);
+        }
+        return emails;
+    }
+
+    @Transactional
+    public void markSent(Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            outboundEmailRepository.markSent(ids, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Records a failed delivery attempt for each message and schedules the next one
+     *
+     * @return how many of the messages are now DEAD
+     */
+    @Transactional
+    public int recordFailure(Collection<Long> ids, String error) {
+        int deadCount = 0;
+        for (OutboundEmail email : outboundEmailRepository.findAllById(ids)) {
+            if (email.getStatus().isFinal()) {
+                continue;
+            }
+
+            int attempts = email.getAttempts() + 1;
+            email.setAttempts(attempts);
+            email.setLastError(truncate(error));
+
+            if (attempts >= maxAttempts) {
+                email.setStatus(MailStatus.DEAD);
+                email.setNextAttemptAt(null);
+                email.setBody(null);
+                email.setHtmlBody(null);
+                deadCount++;
+                log.error("Email {} to {} failed permanently: {}", email.getId(), email.getRecipient(), error);
+            } else {
+                email.setStatus(MailStatus.RETRY);
+                email.setNextAttemptAt(LocalDateTime.now().plus(backoff(attempts)));
+            }
+        }
+        return deadCount;
+    }
+
+    @Transactional(readOnly = true)
+    public List<OutboundEmail> findDue() {
+        return outboundEmailRepository.findTop100ByStatusInAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+                UNSENT_STATUSES, LocalDateTime.now());
+    }
+
+    @Transactional(readOnly = true)
+    public OutboxStats stats() {
+        return new OutboxStats(
+                outboundEmailRepository.countByStatusIn(UNSENT_STATUSES),
+                outboundEmailRepository.countByStatus(MailStatus.DEAD)
+        );
+    }
+
+    private Duration backoff(int attempts) {
+        long delay = retryBaseMs << Math.min(attempts - 1, 20);
+        return Duration.ofMillis(Math.min(delay, retryMaxMs));
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    public record OutboxStats(long pending, long dead) {
+    }
+}
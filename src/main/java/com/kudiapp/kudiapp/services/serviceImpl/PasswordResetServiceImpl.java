@@ -1,8 +1,12 @@
 package com.kudiapp.kudiapp.services.serviceImpl;
 
+import com.kudiapp.kudiapp.config.security.AuthRateLimiter;
+import com.kudiapp.kudiapp.config.security.jwt.TokenRevocationRegistry;
 import com.kudiapp.kudiapp.dto.GenericResponse;
 import com.kudiapp.kudiapp.dto.request.authDTOS.InitiatePasswordReset;
 import com.kudiapp.kudiapp.dto.response.CompleteResetRequest;
+import com.kudiapp.kudiapp.enums.AuthRateLimitRule;
+import com.kudiapp.kudiapp.enums.EmailTemplate;
 import com.kudiapp.kudiapp.exceptions.InvalidRequestException;
 import com.kudiapp.kudiapp.exceptions.InvalidTokenException;
 import com.kudiapp.kudiapp.exceptions.UserNotFoundException;
@@ -25,6 +29,8 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
 
 @Service
 @Slf4j
@@ -34,17 +40,23 @@ public class PasswordResetServiceImpl implements PasswordResetService {
     private final PasswordResetTokenRepository tokenRepository;
     private final EmailService emailService;
     private final PasswordEncoder passwordEncoder;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final AuthRateLimiter authRateLimiter;
 
-    public PasswordResetServiceImpl(UserRepository userRepository, PasswordResetTokenRepository tokenRepository, EmailService emailService, PasswordEncoder passwordEncoder) {
+    public PasswordResetServiceImpl(UserRepository userRepository, PasswordResetTokenRepository tokenRepository, EmailService emailService, PasswordEncoder passwordEncoder, TokenRevocationRegistry tokenRevocationRegistry, AuthRateLimiter authRateLimiter) {
         this.userRepository = userRepository;
         this.tokenRepository = tokenRepository;
         this.emailService = emailService;
         this.passwordEncoder = passwordEncoder;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
+        this.authRateLimiter = authRateLimiter;
     }
 
     @Override
     @Transactional
     public GenericResponse initiatePasswordReset(InitiatePasswordReset resetPasswordRequest) {
+        authRateLimiter.checkEmail(AuthRateLimitRule.PASSWORD_RESET, resetPasswordRequest.getEmail());
+
         User user = userRepository.findByEmailIgnoreCase(resetPasswordRequest.getEmail())
                 .orElseThrow(() -> new UserNotFoundException("User with this email does not exist"));
 
@@ -65,11 +77,12 @@ public class PasswordResetServiceImpl implements PasswordResetService {
         tokenRepository.save(resetToken);
 
         // Encode only for email link
-        emailService.sendOtp(
-                user.getEmail(),
-                "Reset Password",
-                token
-        );
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("name", user.getFirstname());
+        variables.put("type", "password reset");
+        variables.put("code", token);
+        variables.put("expirationMinutes", 15);
+        emailService.sendTemplate(user.getEmail(), EmailTemplate.PASSWORD_RESET, variables);
 
         return GenericResponse.builder()
                 .isSuccess(true)
@@ -126,6 +139,7 @@ public class PasswordResetServiceImpl implements PasswordResetService {
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         user.setPasswordChangedDate(Instant.now());
         userRepository.save(user);
+        tokenRevocationRegistry.revokeAllForUser(user.getId());
 
         // Mark token as used
         resetToken.setUsed(true);
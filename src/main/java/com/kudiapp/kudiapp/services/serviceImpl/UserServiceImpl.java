@@ -1,5 +1,7 @@
 package com.kudiapp.kudiapp.services.serviceImpl;
 
+import com.kudiapp.kudiapp.config.security.jwt.TokenRevocationRegistry;
+import com.kudiapp.kudiapp.dto.CursorPageResponse;
 import com.kudiapp.kudiapp.dto.GenericResponse;
 import com.kudiapp.kudiapp.dto.request.MediaUploadRequest;
 import com.kudiapp.kudiapp.dto.request.authDTOS.UserUpdateRequest;
@@ -13,6 +15,8 @@ import com.kudiapp.kudiapp.models.approles.Role;
 import com.kudiapp.kudiapp.repository.UserRepository;
 import com.kudiapp.kudiapp.services.MediaService;
 import com.kudiapp.kudiapp.services.UserService;
+import com.kudiapp.kudiapp.utills.KeysetPagination;
+import com.kudiapp.kudiapp.utills.PageCursor;
 import com.kudiapp.kudiapp.utills.SecurityUtil;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
@@ -34,15 +38,33 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final SecurityUtil securityUtil;
     private final MediaService mediaService;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
 
-    public UserServiceImpl(UserRepository userRepository, SecurityUtil securityUtil, MediaService mediaService) {
+    public UserServiceImpl(UserRepository userRepository, SecurityUtil securityUtil, MediaService mediaService, TokenRevocationRegistry tokenRevocationRegistry) {
         this.userRepository = userRepository;
         this.securityUtil = securityUtil;
         this.mediaService = mediaService;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
     }
 
     @Override
-    public GenericResponse getAllUsers(int page, int size) {
+    @Transactional
+    public GenericResponse getAllUsers(int page, int size, String after) {
+
+        if (after != null) {
+            // Keyset mode: seek past the cursor, no count query
+            List<User> rows = userRepository.findBy(
+                    KeysetPagination.after(PageCursor.decode(after)),
+                    query -> query
+                            .sortBy(KeysetPagination.NEWEST_FIRST)
+                            .limit(size + 1)
+                            .all());
+
+            CursorPageResponse<UserResponseDTO> response =
+                    KeysetPagination.toPage(rows, size, this::mapToUserResponse);
+
+            return new GenericResponse("Users fetched successfully", HttpStatus.OK, response);
+        }
 
         Pageable pageable = PageRequest.of(page, size, Sort.by("id").descending());
         Page<User> users = userRepository.findAll(pageable);
@@ -53,6 +75,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public GenericResponse getUserById(Long id) {
 
         User user = userRepository.findById(id)
@@ -66,6 +89,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public GenericResponse updateUser(Long id, UserUpdateRequest userUpdateRequest) {
 
         User user = userRepository.findById(id)
@@ -89,6 +113,7 @@ public class UserServiceImpl implements UserService {
     public GenericResponse deleteUser(Long id) {
         User user = userRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("User not found"));
         userRepository.delete(user);
+        tokenRevocationRegistry.revokeAllForUser(id);
         return new GenericResponse("User deleted successfully", HttpStatus.OK, null);
     }
 
@@ -160,6 +185,7 @@ public class UserServiceImpl implements UserService {
 
         user.setEnabled(false);
         userRepository.save(user);
+        tokenRevocationRegistry.revokeAllForUser(id);
 
         return GenericResponse.builder()
                 .httpStatus(HttpStatus.OK)
@@ -1,27 +1,28 @@
 package com.kudiapp.kudiapp.services.serviceImpl;
 
+import com.kudiapp.kudiapp.enums.EmailTemplate;
+import com.kudiapp.kudiapp.enums.OtpVerificationResult;
 import com.kudiapp.kudiapp.exceptions.InvalidTokenException;
 import com.kudiapp.kudiapp.exceptions.ResourceNotFoundException;
-import com.kudiapp.kudiapp.models.VerificationCode;
-import com.kudiapp.kudiapp.repository.VerificationCodeRepository;
 import com.kudiapp.kudiapp.services.EmailService;
+import com.kudiapp.kudiapp.services.OtpStore;
 import com.kudiapp.kudiapp.services.VerificationCodeService;
 import com.kudiapp.kudiapp.utills.OtpUtil;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
+import java.util.Map;
 
 @Slf4j
 @Service
 public class VerificationCodeServiceImpl implements VerificationCodeService {
 
-    private final VerificationCodeRepository verificationCodeRepository;
+    private final OtpStore otpStore;
     private final EmailService emailService;
 
-    public VerificationCodeServiceImpl(VerificationCodeRepository verificationCodeRepository, EmailService emailService) {
-        this.verificationCodeRepository = verificationCodeRepository;
+    public VerificationCodeServiceImpl(OtpStore otpStore, EmailService emailService) {
+        this.otpStore = otpStore;
         this.emailService = emailService;
     }
 
@@ -33,27 +34,14 @@ public class VerificationCodeServiceImpl implements VerificationCodeService {
             log.info("Starting OTP generation for userEmail={}", mask(email));
 
             String code = OtpUtil.generateSixDigitCode();
-            VerificationCode existing = verificationCodeRepository.findByEmail(email);
-
-            if (existing == null) {
-                log.info("No existing OTP entry found. Creating new OTP record for userEmail={}", mask(email));
-                existing = new VerificationCode();
-                existing.setEmail(email);
-            } else {
-                log.info("Existing OTP record found. Updating OTP for userEmail={}", mask(email));
-            }
-
-            existing.setCode(code);
-            existing.setExpiresAt(LocalDateTime.now().plusMinutes(10));
-            verificationCodeRepository.save(existing);
+            otpStore.save(email, code);
 
             log.info("OTP saved successfully. Sending OTP email to userEmail={}", mask(email));
-            log.info("OTP saved successfully. Sending OTP otp={}", existing.getCode());
 
-            emailService.sendOtp(
+            emailService.sendTemplate(
                     email,
-                    "Your Verification Code",
-                    "Your verification code is: " + code + "\nThis code expires in 10 minutes."
+                    EmailTemplate.VERIFICATION_CODE,
+                    Map.of("code", code, "expiresInMinutes", otpStore.ttl().toMinutes())
             );
 
             log.info("OTP email sent successfully to userEmail={}", mask(email));
@@ -66,36 +54,31 @@ public class VerificationCodeServiceImpl implements VerificationCodeService {
     }
 
     @Override
-    @Transactional
     public boolean verifyOtpCode(String email, String code) {
-        try {
-            log.info("Attempting OTP verification for userEmail={} with submittedCode={}", mask(email), code);
+        log.info("Attempting OTP verification for userEmail={}", mask(email));
 
-            VerificationCode entry = verificationCodeRepository.findByEmail(email);
-
-            if (entry == null) {
+        OtpVerificationResult result = otpStore.verify(email, code);
+        switch (result) {
+            case VERIFIED -> {
+                log.info("OTP verification successful for userEmail={}. OTP consumed.", mask(email));
+                return true;
+            }
+            case NOT_FOUND -> {
                 log.warn("OTP verification failed. No OTP record found for userEmail={}", mask(email));
                 throw new ResourceNotFoundException("No OTP record found for userEmail=" + mask(email));
             }
-
-            if (entry.isExpired()) {
+            case EXPIRED -> {
                 log.warn("OTP verification failed. OTP expired for userEmail={}", mask(email));
                 throw new InvalidTokenException("OTP expired for userEmail=" + mask(email));
             }
-
-            if (!entry.getCode().equals(code)) {
+            case TOO_MANY_ATTEMPTS -> {
+                log.warn("OTP verification failed. Too many attempts for userEmail={}, code discarded", mask(email));
+                throw new InvalidTokenException("Too many incorrect attempts, please request a new code");
+            }
+            default -> {
                 log.warn("OTP verification failed. Incorrect code for userEmail={}", mask(email));
                 throw new InvalidTokenException("Incorrect code for userEmail=" + mask(email));
             }
-
-            verificationCodeRepository.delete(entry);
-            log.info("OTP verification successful for userEmail={}. OTP record deleted.", mask(email));
-
-            return true;
-
-        } catch (Exception ex) {
-            log.error("Unexpected error during OTP verification for userEmail={}. error={}", mask(email), ex.getMessage(), ex);
-            throw ex;
         }
     }
 
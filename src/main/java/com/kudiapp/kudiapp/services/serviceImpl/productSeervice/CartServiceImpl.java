@@ -1,31 +1,35 @@
 package com.kudiapp.kudiapp.services.serviceImpl.productSeervice;
 
 import com.kudiapp.kudiapp.dto.GenericResponse;
+import com.kudiapp.kudiapp.dto.productService.CartOrderSummary;
 import com.kudiapp.kudiapp.dto.productService.CartResponseDto;
 import com.kudiapp.kudiapp.enums.productService.CartStatus;
 import com.kudiapp.kudiapp.enums.productService.Currency;
 import com.kudiapp.kudiapp.enums.productService.OrderStatus;
+import com.kudiapp.kudiapp.exceptions.FailedProcessException;
 import com.kudiapp.kudiapp.exceptions.InvalidOperationException;
+import com.kudiapp.kudiapp.exceptions.PaymentGatewayException;
 import com.kudiapp.kudiapp.exceptions.ResourceNotFoundException;
-import com.kudiapp.kudiapp.models.User;
 import com.kudiapp.kudiapp.models.productService.Cart;
+import com.kudiapp.kudiapp.models.productService.CheckoutAttempt;
 import com.kudiapp.kudiapp.models.productService.Order;
 import com.kudiapp.kudiapp.repository.CartRepository;
 import com.kudiapp.kudiapp.repository.OrderRepository;
 import com.kudiapp.kudiapp.services.productService.CartService;
 import com.kudiapp.kudiapp.services.productService.CurrencyExchangeRateService;
+import com.kudiapp.kudiapp.services.productService.PaymentGateway;
 import com.kudiapp.kudiapp.utills.ReferenceGeneratorUtil;
 import com.kudiapp.kudiapp.utills.SecurityUtil;
-import com.stripe.model.checkout.Session;
-import com.stripe.param.checkout.SessionCreateParams;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -44,34 +48,43 @@ public class CartServiceImpl implements CartService {
     private final OrderRepository orderRepository;
     private final CurrencyExchangeRateService exchangeRateService;
     private final SecurityUtil securityUtil;
+    private final OrderCounters orderCounters;
+    private final CheckoutOutbox checkoutOutbox;
+    private final PaymentGateway paymentGateway;
 
     @Override
     public GenericResponse getOrCreateCart() {
         log.info("Getting or creating cart for current user");
 
-        User currentUser = securityUtil.getCurrentLoggedInUser();
+        Long currentUserId = securityUtil.getCurrentUserId();
 
-        Cart cart = cartRepository.findActiveCartByUserId(currentUser.getId())
+        Cart cart = cartRepository.findActiveCartByUserId(currentUserId)
                 .orElseGet(() -> {
-                    log.info("Creating new cart for user: {}", currentUser.getId());
-                    return createNewCart(currentUser);
+                    log.info("Creating new cart for user: {}", currentUserId);
+                    return createNewCart(currentUserId);
                 });
 
         return GenericResponse.builder()
                 .isSuccess(true)
                 .message("Cart retrieved successfully")
                 .httpStatus(HttpStatus.OK)
-                .data(mapToResponseDto(cart))
+                .data(mapToSummaryResponseDto(cart))
                 .build();
     }
 
+    @Override
+    public Cart findOrCreateActiveCart(Long userId) {
+        return cartRepository.findActiveCartByUserId(userId)
+                .orElseGet(() -> createNewCart(userId));
+    }
+
     @Override
     public GenericResponse getActiveCart() {
         log.info("Retrieving active cart for current user");
 
-        User currentUser = securityUtil.getCurrentLoggedInUser();
+        Long currentUserId = securityUtil.getCurrentUserId();
 
-        Cart cart = cartRepository.findActiveCartByUserId(currentUser.getId())
+        Cart cart = cartRepository.findActiveCartByUserId(currentUserId)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "No active cart found. Please add items to create a cart."));
 
@@ -79,7 +92,7 @@ public class CartServiceImpl implements CartService {
                 .isSuccess(true)
                 .message("Active cart retrieved successfully")
                 .httpStatus(HttpStatus.OK)
-                .data(mapToResponseDto(cart))
+                .data(mapToSummaryResponseDto(cart))
                 .build();
     }
 
@@ -88,7 +101,7 @@ public class CartServiceImpl implements CartService {
     public GenericResponse addOrderToCart(Long orderId) {
         log.info("Adding order {} to cart", orderId);
 
-        User currentUser = securityUtil.getCurrentLoggedInUser();
+        Long currentUserId = securityUtil.getCurrentUserId();
 
         // Get order first
         Order order = orderRepository.findById(orderId)
@@ -96,7 +109,7 @@ public class CartServiceImpl implements CartService {
                         "Order not found with ID: " + orderId));
 
         // Validate order belongs to user
-        if (!order.getUserId().equals(currentUser.getId())) {
+        if (!order.getUserId().equals(currentUserId)) {
             throw new InvalidOperationException(
                     "You are not authorized to add this order to cart");
         }
@@ -114,13 +127,12 @@ public class CartServiceImpl implements CartService {
                     .isSuccess(true)
                     .message("Order is already in cart")
                     .httpStatus(HttpStatus.OK)
-                    .data(mapToResponseDto(order.getCart()))
+                    .data(mapToSummaryResponseDto(order.getCart()))
                     .build();
         }
 
-        // Get or create cart
-        Cart cart = cartRepository.findActiveCartByUserId(currentUser.getId())
-                .orElseGet(() -> createNewCart(currentUser));
+        // Get or create cart; existing orders are not loaded, totals are adjusted in place
+        Cart cart = findOrCreateActiveCart(currentUserId);
 
         // Add order to cart (this sets the bidirectional relationship)
         cart.addOrder(order);
@@ -136,7 +148,7 @@ public class CartServiceImpl implements CartService {
                 .isSuccess(true)
                 .message("Order added to cart successfully")
                 .httpStatus(HttpStatus.OK)
-                .data(mapToResponseDto(savedCart))
+                .data(mapToSummaryResponseDto(savedCart))
                 .build();
     }
 
@@ -145,7 +157,7 @@ public class CartServiceImpl implements CartService {
     public GenericResponse removeOrderFromCart(Long orderId) {
         log.info("Removing order {} from cart", orderId);
 
-        User currentUser = securityUtil.getCurrentLoggedInUser();
+        Long currentUserId = securityUtil.getCurrentUserId();
 
         // Get order
         Order order = orderRepository.findById(orderId)
@@ -153,7 +165,7 @@ public class CartServiceImpl implements CartService {
                         "Order not found with ID: " + orderId));
 
         // Validate order belongs to user
-        if (!order.getUserId().equals(currentUser.getId())) {
+        if (!order.getUserId().equals(currentUserId)) {
             throw new InvalidOperationException(
                     "You are not authorized to remove this order");
         }
@@ -167,7 +179,7 @@ public class CartServiceImpl implements CartService {
         Cart cart = order.getCart();
 
         // Validate cart belongs to user
-        if (!cart.getUserId().equals(currentUser.getId())) {
+        if (!cart.getUserId().equals(currentUserId)) {
             throw new InvalidOperationException(
                     "You are not authorized to modify this cart");
         }
@@ -178,9 +190,12 @@ public class CartServiceImpl implements CartService {
                     "Cart cannot be modified in its current status: " + cart.getStatus());
         }
 
-        // Remove order from cart
+        // Remove order from cart and delete it; the cart's orders are not loaded,
+        // so the delete is explicit rather than left to orphan removal
         cart.removeOrder(order);
         order.setIsInCart(false);
+        orderRepository.delete(order);
+        orderCounters.recordDeleted(order);
 
         Cart savedCart = cartRepository.save(cart);
 
@@ -191,7 +206,7 @@ public class CartServiceImpl implements CartService {
                 .isSuccess(true)
                 .message("Order removed from cart successfully")
                 .httpStatus(HttpStatus.OK)
-                .data(mapToResponseDto(savedCart))
+                .data(mapToSummaryResponseDto(savedCart))
                 .build();
     }
 
@@ -199,9 +214,9 @@ public class CartServiceImpl implements CartService {
     public GenericResponse clearCart() {
         log.info("Clearing cart for current user");
 
-        User currentUser = securityUtil.getCurrentLoggedInUser();
+        Long currentUserId = securityUtil.getCurrentUserId();
 
-        Cart cart = cartRepository.findActiveCartByUserId(currentUser.getId())
+        Cart cart = cartRepository.findActiveCartWithOrdersByUserId(currentUserId)
                 .orElseThrow(() -> new ResourceNotFoundException("No active cart found"));
 
         // Validate cart can be modified
@@ -217,13 +232,16 @@ public class CartServiceImpl implements CartService {
 
         int itemCount = cart.getItemCount();
 
-        // Clear all orders
-        cart.getOrders().forEach(order -> order.setIsInCart(false));
+        // Clear all orders (orphan removal deletes them)
+        cart.getOrders().forEach(order -> {
+            order.setIsInCart(false);
+            orderCounters.recordDeleted(order);
+        });
         cart.clearOrders();
         cartRepository.save(cart);
 
         log.info("Successfully cleared {} items from cart for user: {}",
-                itemCount, currentUser.getId());
+                itemCount, currentUserId);
 
         return GenericResponse.builder()
                 .isSuccess(true)
@@ -236,15 +254,15 @@ public class CartServiceImpl implements CartService {
     public GenericResponse getCartSummary() {
         log.info("Retrieving cart summary with live exchange rates");
 
-        User currentUser = securityUtil.getCurrentLoggedInUser();
+        Long currentUserId = securityUtil.getCurrentUserId();
 
-        Cart cart = cartRepository.findActiveCartByUserId(currentUser.getId())
+        Cart cart = cartRepository.findActiveCartByUserId(currentUserId)
                 .orElseThrow(() -> new ResourceNotFoundException("No active cart found"));
 
         // Get live exchange rates
         Map<String, BigDecimal> liveRates = fetchLiveExchangeRates();
 
-        CartResponseDto responseDto = mapToResponseDto(cart);
+        CartResponseDto responseDto = mapToSummaryResponseDto(cart);
         responseDto.setLiveExchangeRates(liveRates);
 
         log.info("Cart summary retrieved: {} items, total: {} {}",
@@ -258,108 +276,65 @@ public class CartServiceImpl implements CartService {
                 .build();
     }
 
+    /**
+     * Runs outside a transaction: the cart is checked out and the outbox record
+     * written in one short transaction, the payment session is created with no
+     * connection held, and the session is recorded in a second short transaction.
+     */
     @Override
-    @SneakyThrows
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public GenericResponse proceedToCheckout() {
 
         log.info("Processing checkout for current user");
 
-        User currentUser = securityUtil.getCurrentLoggedInUser();
-
-        Cart cart = cartRepository.findActiveCartByUserId(currentUser.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("No active cart found"));
-
-        // Validate cart is not empty
-        if (cart.isEmpty()) {
-            throw new InvalidOperationException("Cannot checkout with empty cart");
-        }
-
-        // Validate cart can be checked out
-        if (!cart.canBeModified()) {
-            throw new InvalidOperationException(
-                    "Cart has already been checked out or is in invalid status: " + cart.getStatus());
-        }
+        Long currentUserId = securityUtil.getCurrentUserId();
 
-        // Validate all orders are pending
-        boolean hasNonPendingOrders = cart.getOrders().stream()
-                .anyMatch(order -> !OrderStatus.PENDING.equals(order.getStatus()));
-
-        if (hasNonPendingOrders) {
-            throw new InvalidOperationException(
-                    "Cart contains orders that are not in pending status");
-        }
-
-        // Generate payment reference
-        String paymentReference = ReferenceGeneratorUtil.generatePaymentReference();
-
-        // Update cart status
-        cart.checkout(paymentReference);
-        Cart savedCart = cartRepository.save(cart);
+        CheckoutOutbox.OpenedCheckout opened = checkoutOutbox.open(currentUserId);
+        CheckoutAttempt attempt = opened.attempt();
 
         log.info("Successfully prepared cart {} for checkout. Payment reference: {}, Total: {} {}",
-                savedCart.getId(),
-                paymentReference,
-                savedCart.getTotalAmount(),
-                savedCart.getCurrency());
+                attempt.getCartId(),
+                attempt.getPaymentReference(),
+                attempt.getAmount(),
+                attempt.getCurrency());
 
         // ================================
         //  STRIPE CHECKOUT SESSION
         // ================================
 
-        // Convert amount to smallest currency unit
-        long amountInSmallestUnit = savedCart.getTotalAmount()
-                .multiply(BigDecimal.valueOf(100))
-                .longValue();
-
-        String successUrl = "https://kudi9ja.com/payment-success?reference=" + paymentReference;
-        String cancelUrl = "https://kudi9ja.com/payment-cancel?reference=" + paymentReference;
-
-        SessionCreateParams params =
-                SessionCreateParams.builder()
-                        .setMode(SessionCreateParams.Mode.PAYMENT)
-                        .setSuccessUrl(successUrl)
-                        .setCancelUrl(cancelUrl)
-                        .addLineItem(
-                                SessionCreateParams.LineItem.builder()
-                                        .setQuantity(1L)
-                                        .setPriceData(
-                                                SessionCreateParams.LineItem.PriceData.builder()
-                                                        .setCurrency(savedCart.getCurrency().toString())
-                                                        .setUnitAmount(amountInSmallestUnit)
-                                                        .setProductData(
-                                                                SessionCreateParams.LineItem.PriceData.ProductData.builder()
-                                                                        .setName("Kudi Cart Checkout")
-                                                                        .build()
-                                                        )
-                                                        .build()
-                                        )
-                                        .build()
-                        )
-                        .putMetadata("paymentReference", paymentReference)
-                        .putMetadata("cartReference", savedCart.getCartReference())
-                        .putMetadata("userId", String.valueOf(currentUser.getId()))
-                        .build();
-
-        Session session = Session.create(params);
-
-        log.info("Stripe session created: {}", session.getId());
+        PaymentGateway.CheckoutSession session;
+        try {
+            session = paymentGateway.createCheckoutSession(
+                    checkoutOutbox.sessionRequestFor(attempt));
+        } catch (PaymentGatewayException e) {
+            log.error("Stripe session creation failed for payment reference {}: {}",
+                    attempt.getPaymentReference(), e.getMessage());
+            checkoutOutbox.recordFailure(attempt.getId(), e.getMessage(), true);
+            throw new FailedProcessException("Unable to start payment at the moment. Please try again.");
+        }
+
+        if (!checkoutOutbox.recordSession(attempt.getId(), session.id(), session.url())) {
+            throw new FailedProcessException("Checkout could not be completed. Please try again.");
+        }
+
+        log.info("Stripe session created: {}", session.id());
 
         // ================================
         //  RESPONSE DATA
         // ================================
 
         Map<String, Object> checkoutData = new HashMap<>();
-        checkoutData.put("cartReference", savedCart.getCartReference());
-        checkoutData.put("paymentReference", paymentReference);
-        checkoutData.put("totalAmount", savedCart.getTotalAmount());
-        checkoutData.put("currency", savedCart.getCurrency());
-        checkoutData.put("itemCount", savedCart.getItemCount());
-        checkoutData.put("subtotal", savedCart.getSubtotal());
-        checkoutData.put("serviceFee", savedCart.getTotalServiceFee());
+        checkoutData.put("cartReference", attempt.getCartReference());
+        checkoutData.put("paymentReference", attempt.getPaymentReference());
+        checkoutData.put("totalAmount", attempt.getAmount());
+        checkoutData.put("currency", attempt.getCurrency());
+        checkoutData.put("itemCount", opened.itemCount());
+        checkoutData.put("subtotal", opened.subtotal());
+        checkoutData.put("serviceFee", opened.totalServiceFee());
 
         // NEW FIELDS
-        checkoutData.put("checkoutUrl", session.getUrl());
-        checkoutData.put("stripeSessionId", session.getId());
+        checkoutData.put("checkoutUrl", session.url());
+        checkoutData.put("stripeSessionId", session.id());
 
         return GenericResponse.builder()
                 .isSuccess(true)
@@ -374,9 +349,9 @@ public class CartServiceImpl implements CartService {
 //    public GenericResponse proceedToCheckout() {
 //        log.info("Processing checkout for current user");
 //
-//        User currentUser = securityUtil.getCurrentLoggedInUser();
+//        Long currentUserId = securityUtil.getCurrentUserId();
 //
-//        Cart cart = cartRepository.findActiveCartByUserId(currentUser.getId())
+//        Cart cart = cartRepository.findActiveCartByUserId(currentUserId)
 //                .orElseThrow(() -> new ResourceNotFoundException("No active cart found"));
 //
 //        // Validate cart is not empty
@@ -431,15 +406,13 @@ public class CartServiceImpl implements CartService {
     public GenericResponse getUserCarts() {
         log.info("Retrieving all carts for current user");
 
-        User currentUser = securityUtil.getCurrentLoggedInUser();
+        Long currentUserId = securityUtil.getCurrentUserId();
 
-        List<Cart> carts = cartRepository.findByUserId(currentUser.getId());
+        List<Cart> carts = cartRepository.findByUserId(currentUserId);
 
-        List<CartResponseDto> responseDtos = carts.stream()
-                .map(this::mapToResponseDto)
-                .collect(Collectors.toList());
+        List<CartResponseDto> responseDtos = mapToSummaryResponseDtos(carts);
 
-        log.info("Retrieved {} carts for user: {}", carts.size(), currentUser.getId());
+        log.info("Retrieved {} carts for user: {}", carts.size(), currentUserId);
 
         return GenericResponse.builder()
                 .isSuccess(true)
@@ -451,9 +424,9 @@ public class CartServiceImpl implements CartService {
 
     // PRIVATE HELPER METHODS
 
-    private Cart createNewCart(User user) {
+    private Cart createNewCart(Long userId) {
         Cart cart = Cart.builder()
-                .userId(user.getId())
+                .userId(userId)
                 .cartReference(ReferenceGeneratorUtil.generateCartReference())
                 .status(CartStatus.ACTIVE)
                 .currency(Currency.NGN)
@@ -461,7 +434,7 @@ public class CartServiceImpl implements CartService {
                 .build();
 
         Cart savedCart = cartRepository.save(cart);
-        log.info("Created new cart {} for user {}", savedCart.getId(), user.getId());
+        log.info("Created new cart {} for user {}", savedCart.getId(), userId);
         return savedCart;
     }
 
@@ -496,20 +469,53 @@ public class CartServiceImpl implements CartService {
         return rates;
     }
 
-    private CartResponseDto mapToResponseDto(Cart cart) {
-        // Build order summaries
-        List<CartResponseDto.OrderSummaryDto> orderSummaries = cart.getOrders().stream()
-                .map(order -> CartResponseDto.OrderSummaryDto.builder()
-                        .orderId(order.getId())
-                        .orderReference(order.getOrderReference())
-                        .serviceProductName(order.getServiceProductName())
-                        .servicePlanName(order.getServicePlanName())
-                        .amount(order.getAmount())
-                        .serviceFee(order.getServiceFee())
-                        .totalAmount(order.getTotalAmount())
-                        .currency(order.getAmountCurrency())
-                        .build())
+    /**
+     * Maps a cart without loading its orders, reading only the summary columns
+     */
+    private CartResponseDto mapToSummaryResponseDto(Cart cart) {
+        return mapToSummaryResponseDtos(List.of(cart)).get(0);
+    }
+
+    /**
+     * Maps carts with one summary query for all of their orders
+     */
+    private List<CartResponseDto> mapToSummaryResponseDtos(List<Cart> carts) {
+        if (carts.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> cartIds = carts.stream().map(Cart::getId).toList();
+
+        Map<Long, List<CartResponseDto.OrderSummaryDto>> summariesByCart =
+                orderRepository.findSummariesByCartIdIn(cartIds).stream()
+                        .collect(Collectors.groupingBy(
+                                CartOrderSummary::cartId,
+                                Collectors.mapping(this::toOrderSummaryDto, Collectors.toList())
+                        ));
+
+        return carts.stream()
+                .map(cart -> buildResponseDto(
+                        cart,
+                        summariesByCart.getOrDefault(cart.getId(), new ArrayList<>())))
                 .collect(Collectors.toList());
+    }
+
+    private CartResponseDto.OrderSummaryDto toOrderSummaryDto(CartOrderSummary summary) {
+        return CartResponseDto.OrderSummaryDto.builder()
+                .orderId(summary.orderId())
+                .orderReference(summary.orderReference())
+                .serviceProductName(summary.serviceProductName())
+                .servicePlanName(summary.servicePlanName())
+                .amount(summary.amount())
+                .serviceFee(summary.serviceFee())
+                .totalAmount(summary.totalAmount())
+                .currency(summary.currency())
+                .build();
+    }
+
+    private CartResponseDto buildResponseDto(
+            Cart cart,
+            List<CartResponseDto.OrderSummaryDto> orderSummaries) {
 
         log.debug("Mapped cart {} with {} orders to response DTO",
                 cart.getId(), orderSummaries.size());
@@ -0,0 +1,57 @@
+package com.kudiapp.kudiapp.services.serviceImpl.productSeervice;
+
+import com.kudiapp.kudiapp.repository.CartRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Periodic consistency check for the cart totals, which are adjusted
+ * incrementally as orders are added and removed.
+ * <p>
+ * Active carts are recomputed from their orders in one statement, and only carts
+ * whose stored totals differ are written. Carts touched within the quiet period
+ * are skipped so a check never races a cart that is being edited.
+ */
+@Component
+@Slf4j
+public class CartTotalsReconciler {
+
+    private final CartRepository cartRepository;
+    private final MeterRegistry meterRegistry;
+    private final long quietPeriodMs;
+
+    public CartTotalsReconciler(CartRepository cartRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.carts.totals.quiet-period-ms:60000}") long quietPeriodMs) {
+        this.cartRepository = cartRepository;
+        this.meterRegistry = meterRegistry;
+        this.quietPeriodMs = quietPeriodMs;
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.carts.totals.reconcile-ms:900000}",
+            initialDelayString = "${app.carts.totals.reconcile-ms:900000}"
+    )
+    @Transactional
+    public void reconcile() {
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(quietPeriodMs));
+            int corrected = cartRepository.reconcileIdleActiveCartTotals(cutoff);
+            meterRegistry.counter("carts.totals.drift").increment(corrected);
+            if (corrected > 0) {
+                log.warn("Corrected totals on {} active cart(s)", corrected);
+            } else {
+                log.debug("Cart totals reconciled, no drift");
+            }
+        } catch (Exception e) {
+            log.error("Cart totals reconciliation failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.kudiapp.kudiapp.services.serviceImpl.productSeervice;
+
+import com.kudiapp.kudiapp.enums.productService.CartStatus;
+import com.kudiapp.kudiapp.enums.productService.CheckoutAttemptStatus;
+import com.kudiapp.kudiapp.enums.productService.OrderStatus;
+import com.kudiapp.kudiapp.exceptions.InvalidOperationException;
+import com.kudiapp.kudiapp.exceptions.ResourceNotFoundException;
+import com.kudiapp.kudiapp.models.productService.Cart;
+import com.kudiapp.kudiapp.models.productService.CheckoutAttempt;
+import com.kudiapp.kudiapp.repository.CartRepository;
+import com.kudiapp.kudiapp.repository.CheckoutAttemptRepository;
+import com.kudiapp.kudiapp.services.productService.PaymentGateway;
+import com.kudiapp.kudiapp.utills.ReferenceGeneratorUtil;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The local, short transactions around a checkout.
+ * <p>
+ * A checkout is split so that no database transaction is open while the payment
+ * provider is called:
+ * <ol>
+ *     <li>{@link #open} moves the cart to CHECKOUT_INITIATED and writes a PENDING
+ *     {@link CheckoutAttempt} in one transaction</li>
+ *     <li>the caller creates the session through the {@link PaymentGateway}</li>
+ *     <li>{@link #recordSession} or {@link #recordFailure} settles the attempt in a
+ *     second transaction</li>
+ * </ol>
+ * Attempts left PENDING by a crash between these steps are picked up by
+ * {@link CheckoutRecoveryJob}.
+ */
+@Component
+@Slf4j
+public class CheckoutOutbox {
+
+    private static final String SUCCESS_URL = "https://kudi9ja.com/payment-success?reference=";
+    private static final String CANCEL_URL = "https://kudi9ja.com/payment-cancel?reference=";
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final CartRepository cartRepository;
+    private final CheckoutAttemptRepository checkoutAttemptRepository;
+
+    public CheckoutOutbox(CartRepository cartRepository, CheckoutAttemptRepository checkoutAttemptRepository) {
+        this.cartRepository = cartRepository;
+        this.checkoutAttemptRepository = checkoutAttemptRepository;
+    }
+
+    /**
+     * Validates the user's active cart, checks it out and records a PENDING attempt
+     */
+    @Transactional
+    @SneakyThrows
+    public OpenedCheckout open(Long userId) {
+        Cart cart = cartRepository.findActiveCartWithOrdersByUserId(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("No active cart found"));
+
+        // Validate cart is not empty
+        if (cart.isEmpty()) {
+            throw new InvalidOperationException("Cannot checkout with empty cart");
+        }
+
+        // Validate cart can be checked out
+        if (!cart.canBeModified()) {
+            throw new InvalidOperationException(
+                    "Cart has already been checked out or is in invalid status: " + cart.getStatus());
+        }
+
+        // Validate all orders are pending
+        boolean hasNonPendingOrders = cart.getOrders().stream()
+                .anyMatch(order -> !OrderStatus.PENDING.equals(order.getStatus()));
+
+        if (hasNonPendingOrders) {
+            throw new InvalidOperationException(
+                    "Cart contains orders that are not in pending status");
+        }
+
+        // The orders are loaded here, so charge what they add up to rather than the
+        // incrementally maintained totals
+        cart.updateCartTotals();
+
+        String paymentReference = ReferenceGeneratorUtil.generatePaymentReference();
+
+        cart.checkout(paymentReference);
+        Cart savedCart = cartRepository.save(cart);
+
+        CheckoutAttempt attempt = checkoutAttemptRepository.save(CheckoutAttempt.builder()
+                .cartId(savedCart.getId())
+                .userId(userId)
+                .cartReference(savedCart.getCartReference())
+                .paymentReference(paymentReference)
+                .amount(savedCart.getTotalAmount())
+                .currency(savedCart.getCurrency())
+                .successUrl(SUCCESS_URL + paymentReference)
+                .cancelUrl(CANCEL_URL + paymentReference)
+                .build());
+
+        log.info("Cart {} checked out with payment reference {}, attempt {}",
+                savedCart.getId(), paymentReference, attempt.getId());
+
+        return new OpenedCheckout(
+                attempt,
+                savedCart.getItemCount(),
+                savedCart.getSubtotal(),
+                savedCart.getTotalServiceFee()
+        );
+    }
+
+    /**
+     * Records the created session on the attempt and the cart
+     *
+     * @return false if the attempt was already settled, e.g. released by the recovery job
+     */
+    @Transactional
+    public boolean recordSession(Long attemptId, String sessionId, String checkoutUrl) {
+        CheckoutAttempt attempt = checkoutAttemptRepository.findById(attemptId)
+                .orElseThrow(() -> new ResourceNotFoundException("Checkout attempt not found"));
+
+        if (attempt.getStatus() == CheckoutAttemptStatus.SESSION_CREATED) {
+            return sessionId.equals(attempt.getStripeSessionId());
+        }
+        if (attempt.getStatus() != CheckoutAttemptStatus.PENDING) {
+            log.warn("Checkout attempt {} is {}, ignoring session {}",
+                    attemptId, attempt.getStatus(), sessionId);
+            return false;
+        }
+
+        attempt.setStatus(CheckoutAttemptStatus.SESSION_CREATED);
+        attempt.setStripeSessionId(sessionId);
+        attempt.setCheckoutUrl(checkoutUrl);
+        attempt.setAttempts(attempt.getAttempts() + 1);
+        attempt.setLastError(null);
+
+        cartRepository.findById(attempt.getCartId())
+                .ifPresent(cart -> cart.setStripeSessionId(sessionId));
+
+        return true;
+    }
+
+    /**
+     * Records a failed provider call. When {@code release} is set the attempt is
+     * marked FAILED and the cart is handed back to the user so they can check out again.
+     */
+    @Transactional
+    public void recordFailure(Long attemptId, String error, boolean release) {
+        CheckoutAttempt attempt = checkoutAttemptRepository.findById(attemptId)
+                .orElseThrow(() -> new ResourceNotFoundException("Checkout attempt not found"));
+
+        if (attempt.getStatus().isFinal()) {
+            return;
+        }
+
+        attempt.setAttempts(attempt.getAttempts() + 1);
+        attempt.setLastError(truncate(error));
+
+        if (release) {
+            attempt.setStatus(CheckoutAttemptStatus.FAILED);
+            releaseCart(attempt);
+        }
+    }
+
+    /**
+     * Records a session created for an already checked-out cart (payment initialization)
+     */
+    @Transactional
+    public void recordSessionForCart(Long cartId, String sessionId) {
+        cartRepository.findById(cartId)
+                .ifPresent(cart -> cart.setStripeSessionId(sessionId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<CheckoutAttempt> findStalePending(LocalDateTime cutoff) {
+        return checkoutAttemptRepository.findTop50ByStatusAndUpdatedAtBeforeOrderByUpdatedAtAsc(
+                CheckoutAttemptStatus.PENDING, cutoff);
+    }
+
+    /**
+     * The session request for an attempt; identical on every retry
+     */
+    public PaymentGateway.CheckoutSessionRequest sessionRequestFor(CheckoutAttempt attempt) {
+        return new PaymentGateway.CheckoutSessionRequest(
+                attempt.idempotencyKey(),
+                attempt.getAmount(),
+                attempt.getCurrency(),
+                "Kudi Cart Checkout",
+                attempt.getSuccessUrl(),
+                attempt.getCancelUrl(),
+                Map.of(
+                        "paymentReference", attempt.getPaymentReference(),
+                        "cartReference", attempt.getCartReference(),
+                        "userId", String.valueOf(attempt.getUserId())
+                )
+        );
+    }
+
+    private void releaseCart(CheckoutAttempt attempt) {
+        cartRepository.findById(attempt.getCartId()).ifPresent(cart -> {
+            if (cart.getStatus() != CartStatus.CHECKOUT_INITIATED
+                    || !attempt.getPaymentReference().equals(cart.getPaymentReference())) {
+                return;
+            }
+            if (cartRepository.existsByUserIdAndStatus(cart.getUserId(), CartStatus.ACTIVE)) {
+                // The user has started a new cart meanwhile
+                cart.setStatus(CartStatus.FAILED);
+            } else {
+                cart.reopen();
+            }
+            log.info("Released cart {} after failed checkout attempt {}", cart.getId(), attempt.getId());
+        });
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    public record OpenedCheckout(
+            CheckoutAttempt attempt,
+            Integer itemCount,
+            BigDecimal subtotal,
+            BigDecimal totalServiceFee
+    ) {
+    }
+}
@@ -0,0 +1,96 @@
+package com.kudiapp.kudiapp.services.serviceImpl.productSeervice;
+
+import com.kudiapp.kudiapp.exceptions.PaymentGatewayException;
+import com.kudiapp.kudiapp.models.productService.CheckoutAttempt;
+import com.kudiapp.kudiapp.services.productService.PaymentGateway;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Completes or releases checkouts left PENDING, e.g. by a restart between the
+ * local transactions and the provider call.
+ * <p>
+ * The session is requested again with the attempt's idempotency key, so a session
+ * that was created but never recorded is returned rather than duplicated. After
+ * the configured number of failed attempts the cart is released back to the user.
+ */
+@Component
+@Slf4j
+public class CheckoutRecoveryJob {
+
+    private final CheckoutOutbox checkoutOutbox;
+    private final PaymentGateway paymentGateway;
+    private final MeterRegistry meterRegistry;
+    private final long staleAfterMs;
+    private final int maxAttempts;
+
+    public CheckoutRecoveryJob(CheckoutOutbox checkoutOutbox,
+                               PaymentGateway paymentGateway,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.checkout.recovery.stale-after-ms:120000}") long staleAfterMs,
+                               @Value("${app.checkout.recovery.max-attempts:5}") int maxAttempts) {
+        this.checkoutOutbox = checkoutOutbox;
+        this.paymentGateway = paymentGateway;
+        this.meterRegistry = meterRegistry;
+        this.staleAfterMs = staleAfterMs;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.checkout.recovery.interval-ms:60000}",
+            initialDelayString = "${app.checkout.recovery.interval-ms:60000}"
+    )
+    public void recoverStaleCheckouts() {
+        if (!paymentGateway.isAvailable()) {
+            // Retrying now would only use up the attempts' retry budget
+            log.debug("Payment gateway unavailable, skipping checkout recovery");
+            return;
+        }
+
+        List<CheckoutAttempt> stale;
+        try {
+            stale = checkoutOutbox.findStalePending(
+                    LocalDateTime.now().minus(Duration.ofMillis(staleAfterMs)));
+        } catch (Exception e) {
+            log.error("Could not load pending checkout attempts: {}", e.getMessage(), e);
+            return;
+        }
+
+        if (!stale.isEmpty()) {
+            log.info("Recovering {} pending checkout attempt(s)", stale.size());
+        }
+        stale.forEach(this::recover);
+    }
+
+    private void recover(CheckoutAttempt attempt) {
+        try {
+            PaymentGateway.CheckoutSession session = paymentGateway.createCheckoutSession(
+                    checkoutOutbox.sessionRequestFor(attempt));
+
+            if (checkoutOutbox.recordSession(attempt.getId(), session.id(), session.url())) {
+                meterRegistry.counter("checkout.recovery", "outcome", "recovered").increment();
+                log.info("Recovered checkout attempt {} with session {}", attempt.getId(), session.id());
+            }
+        } catch (PaymentGatewayException e) {
+            boolean release = attempt.getAttempts() + 1 >= maxAttempts;
+            log.warn("Checkout attempt {} failed again ({}), {}", attempt.getId(), e.getMessage(),
+                    release ? "releasing cart" : "will retry");
+            try {
+                checkoutOutbox.recordFailure(attempt.getId(), e.getMessage(), release);
+                meterRegistry.counter("checkout.recovery", "outcome", release ? "released" : "retry").increment();
+            } catch (Exception recordError) {
+                log.error("Could not record failure for checkout attempt {}: {}",
+                        attempt.getId(), recordError.getMessage(), recordError);
+            }
+        } catch (Exception e) {
+            log.error("Checkout recovery failed for attempt {}: {}", attempt.getId(), e.getMessage(), e);
+        }
+    }
+}
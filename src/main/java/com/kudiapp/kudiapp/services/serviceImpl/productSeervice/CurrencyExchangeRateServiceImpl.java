@@ -14,6 +14,7 @@ import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -27,6 +28,7 @@ import java.util.stream.Collectors;
 public class CurrencyExchangeRateServiceImpl implements CurrencyExchangeRateService {
 
     private final CurrencyExchangeRateRepository exchangeRateRepository;
+    private final ExchangeRateCache exchangeRateCache;
 
     @Override
     public GenericResponse createExchangeRate(CurrencyExchangeRateRequest request) {
@@ -38,6 +40,7 @@ public class CurrencyExchangeRateServiceImpl implements CurrencyExchangeRateServ
 
         CurrencyExchangeRate rate = buildExchangeRateFromRequest(new CurrencyExchangeRate(), request);
         CurrencyExchangeRate savedRate = exchangeRateRepository.save(rate);
+        exchangeRateCache.invalidateAfterCommit();
 
         log.info("Successfully created exchange rate with ID: {}", savedRate.getId());
 
@@ -59,6 +62,7 @@ public class CurrencyExchangeRateServiceImpl implements CurrencyExchangeRateServ
 
         buildExchangeRateFromRequest(rate, request);
         CurrencyExchangeRate updatedRate = exchangeRateRepository.save(rate);
+        exchangeRateCache.invalidateAfterCommit();
 
         log.info("Successfully updated exchange rate with ID: {}", id);
 
@@ -124,7 +128,7 @@ public class CurrencyExchangeRateServiceImpl implements CurrencyExchangeRateServ
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public BigDecimal getConversionRate(Currency fromCurrency, Currency toCurrency) {
         log.debug("Getting conversion rate from {} to {}", fromCurrency, toCurrency);
 
@@ -132,12 +136,14 @@ public class CurrencyExchangeRateServiceImpl implements CurrencyExchangeRateServ
             return BigDecimal.ONE;
         }
 
-        CurrencyExchangeRate rate = exchangeRateRepository
-                .findLatestEffectiveRate(fromCurrency, toCurrency, LocalDateTime.now())
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "No conversion rate available from " + fromCurrency + " to " + toCurrency));
+        // Served from the in-memory snapshot, no query on the order path
+        BigDecimal rate = exchangeRateCache.getCurrentRate(fromCurrency, toCurrency);
+        if (rate == null) {
+            throw new ResourceNotFoundException(
+                    "No conversion rate available from " + fromCurrency + " to " + toCurrency);
+        }
 
-        return rate.getExchangeRate();
+        return rate;
     }
 
     @Override
@@ -146,6 +152,7 @@ public class CurrencyExchangeRateServiceImpl implements CurrencyExchangeRateServ
 
         CurrencyExchangeRate rate = findExchangeRateById(id);
         exchangeRateRepository.delete(rate);
+        exchangeRateCache.invalidateAfterCommit();
 
         log.info("Successfully deleted exchange rate with ID: {}", id);
 
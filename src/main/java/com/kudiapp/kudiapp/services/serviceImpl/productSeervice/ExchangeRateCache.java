@@ -0,0 +1,146 @@
+package com.kudiapp.kudiapp.services.serviceImpl.productSeervice;
+
+import com.kudiapp.kudiapp.enums.productService.Currency;
+import com.kudiapp.kudiapp.repository.CurrencyExchangeRateRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * In-memory exchange rate table used on the order and cart paths.
+ * <p>
+ * Readers get the rate from the current {@link ExchangeRateTable} snapshot
+ * without touching the database. The snapshot is rebuilt after any rate change
+ * commits, and periodically so that changes made on other instances are picked
+ * up. Future-dated rates and expiries are applied by rolling the snapshot over
+ * at the exact boundary instant, see {@link ExchangeRateRolloverScheduler}.
+ */
+@Component
+@Slf4j
+public class ExchangeRateCache {
+
+    private final CurrencyExchangeRateRepository exchangeRateRepository;
+    private final ExchangeRateRolloverScheduler rolloverScheduler;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    private volatile ExchangeRateTable table;
+
+    public ExchangeRateCache(CurrencyExchangeRateRepository exchangeRateRepository,
+                             ExchangeRateRolloverScheduler rolloverScheduler,
+                             ApplicationEventPublisher eventPublisher,
+                             MeterRegistry meterRegistry) {
+        this.exchangeRateRepository = exchangeRateRepository;
+        this.rolloverScheduler = rolloverScheduler;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @return the rate in force now, or null if there is none
+     */
+    public BigDecimal getCurrentRate(Currency from, Currency to) {
+        ExchangeRateTable current = table;
+        if (current == null) {
+            current = loadIfAbsent();
+        }
+        // Covers a rollover task that has not run yet, e.g. under scheduler load
+        if (current.isStale(System.currentTimeMillis())) {
+            current = rollover();
+        }
+        return current.currentRate(from, to);
+    }
+
+    /**
+     * Rebuilds the snapshot once the current transaction commits, or immediately
+     * when called outside a transaction.
+     */
+    public void invalidateAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload();
+                }
+            });
+        } else {
+            reload();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("Could not preload exchange rates, will load on first use: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.exchange-rates.cache.refresh-ms:300000}",
+            initialDelayString = "${app.exchange-rates.cache.refresh-ms:300000}"
+    )
+    public void refresh() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("Exchange rate refresh failed, keeping current snapshot: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void reload() {
+        ExchangeRateTable loaded = ExchangeRateTable.of(
+                exchangeRateRepository.findByIsActiveTrue(), LocalDateTime.now());
+        table = loaded;
+        rolloverScheduler.scheduleAt(loaded.nextBoundary(), this::rollover);
+        log.info("Loaded exchange rate snapshot");
+    }
+
+    private synchronized ExchangeRateTable loadIfAbsent() {
+        if (table == null) {
+            reload();
+        }
+        return table;
+    }
+
+    /**
+     * Re-resolves the current rates from the snapshot's rate windows once the
+     * next boundary has been reached.
+     */
+    synchronized ExchangeRateTable rollover() {
+        ExchangeRateTable current = table;
+        LocalDateTime boundary = current.nextBoundary();
+        if (boundary == null) {
+            return current;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (now.isBefore(boundary)) {
+            if (!current.isStale(System.currentTimeMillis())) {
+                // Fired early, try again at the boundary
+                rolloverScheduler.scheduleAt(boundary, this::rollover);
+                return current;
+            }
+            now = boundary;
+        }
+
+        ExchangeRateTable rolled = current.rollTo(now);
+        table = rolled;
+        rolloverScheduler.scheduleAt(rolled.nextBoundary(), this::rollover);
+
+        meterRegistry.counter("exchange_rates.rollover").increment();
+        eventPublisher.publishEvent(new ExchangeRateRolloverEvent(now, rolled.nextBoundary()));
+        log.info("Exchange rate snapshot rolled over at {}", now);
+        return rolled;
+    }
+}
@@ -0,0 +1,13 @@
+package com.kudiapp.kudiapp.services.serviceImpl.productSeervice;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when the active exchange rate snapshot rolls over because a rate
+ * became effective or expired.
+ *
+ * @param effectiveAt    the instant the new snapshot was resolved for
+ * @param nextRolloverAt the next scheduled rollover, or null if none is pending
+ */
+public record ExchangeRateRolloverEvent(LocalDateTime effectiveAt, LocalDateTime nextRolloverAt) {
+}
@@ -0,0 +1,41 @@
+package com.kudiapp.kudiapp.services.serviceImpl.productSeervice;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Keeps a single pending rollover task, scheduled for the next instant at which
+ * an exchange rate starts or stops being effective.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExchangeRateRolloverScheduler {
+
+    private final TaskScheduler taskScheduler;
+
+    private ScheduledFuture<?> pending;
+
+    /**
+     * Replaces any pending rollover with {@code task} at {@code at}. A null
+     * {@code at} just cancels the pending rollover.
+     */
+    public synchronized void scheduleAt(LocalDateTime at, Runnable task) {
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+        if (at == null) {
+            log.debug("No exchange rate rollover pending");
+            return;
+        }
+        pending = taskScheduler.schedule(task, at.atZone(ZoneId.systemDefault()).toInstant());
+        log.info("Next exchange rate rollover scheduled at {}", at);
+    }
+}
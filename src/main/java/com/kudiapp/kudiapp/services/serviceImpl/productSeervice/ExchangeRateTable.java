@@ -0,0 +1,160 @@
+package com.kudiapp.kudiapp.services.serviceImpl.productSeervice;
+
+import com.kudiapp.kudiapp.enums.productService.Currency;
+import com.kudiapp.kudiapp.models.productService.CurrencyExchangeRate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable snapshot of all active exchange rates, indexed by
+ * {@code [from.ordinal()][to.ordinal()]}.
+ * <p>
+ * Each pair holds its rate windows ordered by effective date, newest first, so
+ * a lookup returns the same row as {@code findLatestEffectiveRate} would. The
+ * rates in force at {@link #resolvedAt()} are precomputed, together with the
+ * next instant at which any of them changes, so the current rate is a single
+ * array read until that boundary is reached.
+ */
+final class ExchangeRateTable {
+
+    record RateWindow(Long id, BigDecimal rate, LocalDateTime effectiveDate, LocalDateTime expiryDate) {
+
+        boolean isEffectiveAt(LocalDateTime time) {
+            return !effectiveDate.isAfter(time) && (expiryDate == null || !expiryDate.isBefore(time));
+        }
+    }
+
+    private static final RateWindow[] NO_WINDOWS = new RateWindow[0];
+
+    private static final Comparator<RateWindow> NEWEST_FIRST = Comparator
+            .comparing(RateWindow::effectiveDate)
+            .thenComparing(RateWindow::id, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .reversed();
+
+    private final RateWindow[][][] windows;
+    private final BigDecimal[][] current;
+    private final LocalDateTime resolvedAt;
+    private final LocalDateTime nextBoundary;
+    private final long nextBoundaryEpochMs;
+
+    private ExchangeRateTable(RateWindow[][][] windows, LocalDateTime resolvedAt) {
+        this.windows = windows;
+        this.resolvedAt = resolvedAt;
+
+        int size = windows.length;
+        this.current = new BigDecimal[size][size];
+        LocalDateTime next = null;
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                current[i][j] = lookup(windows[i][j], resolvedAt);
+                for (RateWindow window : windows[i][j]) {
+                    next = earliest(next, boundaryAfter(window, resolvedAt));
+                }
+            }
+        }
+        this.nextBoundary = next;
+        this.nextBoundaryEpochMs = next == null
+                ? Long.MAX_VALUE
+                : next.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    static ExchangeRateTable of(List<CurrencyExchangeRate> activeRates, LocalDateTime now) {
+        int size = Currency.values().length;
+
+        List<List<List<RateWindow>>> grouped = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            List<List<RateWindow>> row = new ArrayList<>(size);
+            for (int j = 0; j < size; j++) {
+                row.add(new ArrayList<>());
+            }
+            grouped.add(row);
+        }
+
+        for (CurrencyExchangeRate rate : activeRates) {
+            grouped.get(rate.getFromCurrency().ordinal())
+                    .get(rate.getToCurrency().ordinal())
+                    .add(new RateWindow(rate.getId(), rate.getExchangeRate(),
+                            rate.getEffectiveDate(), rate.getExpiryDate()));
+        }
+
+        RateWindow[][][] windows = new RateWindow[size][size][];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                List<RateWindow> pair = grouped.get(i).get(j);
+                pair.sort(NEWEST_FIRST);
+                windows[i][j] = pair.isEmpty() ? NO_WINDOWS : pair.toArray(NO_WINDOWS);
+            }
+        }
+
+        return new ExchangeRateTable(windows, now);
+    }
+
+    /**
+     * Re-resolves the current rates at {@code now} from the same rate windows,
+     * without going back to the database.
+     */
+    ExchangeRateTable rollTo(LocalDateTime now) {
+        return new ExchangeRateTable(windows, now);
+    }
+
+    /**
+     * @return the rate in force at {@link #resolvedAt()}, or null if there is none
+     */
+    BigDecimal currentRate(Currency from, Currency to) {
+        return current[from.ordinal()][to.ordinal()];
+    }
+
+    LocalDateTime resolvedAt() {
+        return resolvedAt;
+    }
+
+    /**
+     * @return the next instant after {@link #resolvedAt()} at which a rate starts
+     * or stops being effective, or null if no change is scheduled
+     */
+    LocalDateTime nextBoundary() {
+        return nextBoundary;
+    }
+
+    /**
+     * @return true once the clock has passed {@link #nextBoundary()}
+     */
+    boolean isStale(long nowEpochMs) {
+        return nowEpochMs >= nextBoundaryEpochMs;
+    }
+
+    private static BigDecimal lookup(RateWindow[] pairWindows, LocalDateTime time) {
+        for (RateWindow window : pairWindows) {
+            if (window.isEffectiveAt(time)) {
+                return window.rate();
+            }
+        }
+        return null;
+    }
+
+    private static LocalDateTime boundaryAfter(RateWindow window, LocalDateTime time) {
+        if (window.effectiveDate().isAfter(time)) {
+            return window.effectiveDate();
+        }
+        // Expiry is inclusive, so the rate drops out just after the expiry instant
+        if (window.expiryDate() != null && !window.expiryDate().isBefore(time)) {
+            return window.expiryDate().plusNanos(1_000_000);
+        }
+        return null;
+    }
+
+    private static LocalDateTime earliest(LocalDateTime a, LocalDateTime b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        return a.isBefore(b) ? a : b;
+    }
+}
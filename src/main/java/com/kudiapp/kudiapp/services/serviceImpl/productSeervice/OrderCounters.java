@@ -0,0 +1,227 @@
+package com.kudiapp.kudiapp.services.serviceImpl.productSeervice;
+
+import com.kudiapp.kudiapp.dto.productService.OrderStatusActionCount;
+import com.kudiapp.kudiapp.enums.productService.OrderAction;
+import com.kudiapp.kudiapp.enums.productService.OrderStatus;
+import com.kudiapp.kudiapp.models.productService.Order;
+import com.kudiapp.kudiapp.repository.OrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory order counts per (status, action), kept up to date on every
+ * order transition so the admin statistics never scan the orders table.
+ * <p>
+ * Changes are applied only after the surrounding transaction commits. The
+ * counters are seeded from a grouped query on startup, and a periodic
+ * reconciliation recomputes them from the orders table and corrects drift.
+ * <p>
+ * A transaction's rows are visible as soon as it commits, but its change is
+ * applied a moment later, so a reconciliation can see a difference that is
+ * about to go away. A difference is therefore only corrected once it has shown
+ * up in two consecutive reconciliations, and then only by the part present in
+ * both; a difference seen once is remembered and checked again on the next run.
+ * <p>
+ * The counters are per JVM and only see transitions made on this instance.
+ * With a single instance they are exact apart from the brief gap after each
+ * commit. With several instances each one lags the others' changes by up to two
+ * reconciliations, and reports those changes as drift.
+ */
+@Component
+@Slf4j
+public class OrderCounters {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final OrderAction[] ACTIONS = OrderAction.values();
+
+    private final OrderRepository orderRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final LongAdder[][] counts = new LongAdder[STATUSES.length][ACTIONS.length];
+    // Changes share the read lock; seeding and reconciliation take the write lock
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean seeded;
+    // Differences seen by the previous reconciliation and not corrected yet
+    private final long[][] unconfirmed = new long[STATUSES.length][ACTIONS.length];
+
+    public OrderCounters(OrderRepository orderRepository, MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.meterRegistry = meterRegistry;
+        for (int i = 0; i < STATUSES.length; i++) {
+            for (int j = 0; j < ACTIONS.length; j++) {
+                counts[i][j] = new LongAdder();
+            }
+        }
+    }
+
+    public void recordCreated(Order order) {
+        OrderStatus status = order.getStatus();
+        OrderAction action = order.getAction();
+        afterCommit(() -> add(status, action, 1));
+    }
+
+    public void recordDeleted(Order order) {
+        OrderStatus status = order.getStatus();
+        OrderAction action = order.getAction();
+        afterCommit(() -> add(status, action, -1));
+    }
+
+    public void recordTransition(OrderStatus fromStatus, OrderAction fromAction,
+                                 OrderStatus toStatus, OrderAction toAction) {
+        if (fromStatus == toStatus && fromAction == toAction) {
+            return;
+        }
+        afterCommit(() -> {
+            lock.readLock().lock();
+            try {
+                add(fromStatus, fromAction, -1);
+                add(toStatus, toAction, 1);
+            } finally {
+                lock.readLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * @return the current count for the given combination
+     */
+    public long get(OrderStatus status, OrderAction action) {
+        ensureSeeded();
+        return counts[status.ordinal()][action.ordinal()].sum();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        try {
+            ensureSeeded();
+        } catch (Exception e) {
+            log.warn("Could not seed order counters, will seed on first use: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recomputes the counts from the orders table and corrects drift that the
+     * previous run also saw.
+     */
+    @Scheduled(
+            fixedDelayString = "${app.orders.counters.reconcile-ms:600000}",
+            initialDelayString = "${app.orders.counters.reconcile-ms:600000}"
+    )
+    public void reconcile() {
+        if (!seeded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            long[][] actual = loadCounts();
+            long drift = 0;
+            for (int i = 0; i < STATUSES.length; i++) {
+                for (int j = 0; j < ACTIONS.length; j++) {
+                    long delta = actual[i][j] - counts[i][j].sum();
+                    long confirmed = confirmedDrift(unconfirmed[i][j], delta);
+                    if (confirmed != 0) {
+                        log.warn("Order counter drift for {}/{}: {}", STATUSES[i], ACTIONS[j], confirmed);
+                        counts[i][j].add(confirmed);
+                        drift += Math.abs(confirmed);
+                    } else if (delta != 0) {
+                        log.debug("Order counter difference for {}/{}: {}, checking again next run",
+                                STATUSES[i], ACTIONS[j], delta);
+                    }
+                    unconfirmed[i][j] = delta - confirmed;
+                }
+            }
+            meterRegistry.counter("orders.counters.drift").increment(drift);
+            if (drift == 0) {
+                log.debug("Order counters reconciled, no drift");
+            }
+        } catch (Exception e) {
+            log.error("Order counter reconciliation failed: {}", e.getMessage(), e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the part of the current difference that the previous run also saw,
+     * in the same direction
+     */
+    private static long confirmedDrift(long previous, long current) {
+        if (previous == 0 || current == 0 || (previous > 0) != (current > 0)) {
+            return 0;
+        }
+        return previous > 0 ? Math.min(previous, current) : Math.max(previous, current);
+    }
+
+    private void ensureSeeded() {
+        if (seeded) {
+            return;
+        }
+        synchronized (this) {
+            if (seeded) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                long[][] actual = loadCounts();
+                for (int i = 0; i < STATUSES.length; i++) {
+                    for (int j = 0; j < ACTIONS.length; j++) {
+                        counts[i][j].reset();
+                        counts[i][j].add(actual[i][j]);
+                        unconfirmed[i][j] = 0;
+                    }
+                }
+                seeded = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Seeded order counters from orders table");
+        }
+    }
+
+    private long[][] loadCounts() {
+        long[][] actual = new long[STATUSES.length][ACTIONS.length];
+        List<OrderStatusActionCount> rows = orderRepository.countGroupedByStatusAndAction();
+        for (OrderStatusActionCount row : rows) {
+            if (row.status() != null && row.action() != null) {
+                actual[row.status().ordinal()][row.action().ordinal()] = row.count();
+            }
+        }
+        return actual;
+    }
+
+    private void add(OrderStatus status, OrderAction action, long delta) {
+        if (status == null || action == null) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            counts[status.ordinal()][action.ordinal()].add(delta);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+}
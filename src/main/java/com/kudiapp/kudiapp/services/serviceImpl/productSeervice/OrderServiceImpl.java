@@ -1,9 +1,10 @@
 package com.kudiapp.kudiapp.services.serviceImpl.productSeervice;
 
+import com.kudiapp.kudiapp.dto.CursorPageResponse;
 import com.kudiapp.kudiapp.dto.GenericResponse;
+import com.kudiapp.kudiapp.dto.productService.BatchOrderRequestDto;
 import com.kudiapp.kudiapp.dto.productService.OrderResponseDto;
 import com.kudiapp.kudiapp.dto.productService.OrderRequestDto;
-import com.kudiapp.kudiapp.enums.PaymentStatus;
 import com.kudiapp.kudiapp.enums.productService.*;
 import com.kudiapp.kudiapp.exceptions.InvalidOperationException;
 import com.kudiapp.kudiapp.exceptions.ResourceNotFoundException;
@@ -13,25 +14,35 @@ import com.kudiapp.kudiapp.repository.OrderRepository;
 import com.kudiapp.kudiapp.repository.PaymentRepository;
 import com.kudiapp.kudiapp.repository.ServiceProductPlanRepository;
 import com.kudiapp.kudiapp.repository.ServiceProductRepository;
+import com.kudiapp.kudiapp.services.productService.CartService;
 import com.kudiapp.kudiapp.services.productService.CurrencyExchangeRateService;
 import com.kudiapp.kudiapp.services.productService.OrderService;
+import com.kudiapp.kudiapp.services.productService.OrderSpecification;
 import com.kudiapp.kudiapp.utills.CredentialEncryptionUtil;
+import com.kudiapp.kudiapp.utills.KeysetPagination;
+import com.kudiapp.kudiapp.utills.PageCursor;
 import com.kudiapp.kudiapp.utills.ReferenceGeneratorUtil;
 import com.kudiapp.kudiapp.utills.SecurityUtil;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.util.HashMap;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of OrderService for managing product service orders
@@ -48,8 +59,11 @@ public class OrderServiceImpl implements OrderService {
     private final CurrencyExchangeRateService exchangeRateService;
     private final CredentialEncryptionUtil encryptionUtil;
     private final SecurityUtil securityUtil;
+    private final CartService cartService;
+    private final OrderStatisticsProvider orderStatisticsProvider;
+    private final OrderCounters orderCounters;
 
-    public OrderServiceImpl(OrderRepository orderRepository, ServiceProductRepository serviceProductRepository, ServiceProductPlanRepository servicePlanRepository, PaymentRepository paymentRepository, CurrencyExchangeRateService exchangeRateService, CredentialEncryptionUtil encryptionUtil, SecurityUtil securityUtil) {
+    public OrderServiceImpl(OrderRepository orderRepository, ServiceProductRepository serviceProductRepository, ServiceProductPlanRepository servicePlanRepository, PaymentRepository paymentRepository, CurrencyExchangeRateService exchangeRateService, CredentialEncryptionUtil encryptionUtil, SecurityUtil securityUtil, CartService cartService, OrderStatisticsProvider orderStatisticsProvider, OrderCounters orderCounters) {
         this.orderRepository = orderRepository;
         this.serviceProductRepository = serviceProductRepository;
         this.servicePlanRepository = servicePlanRepository;
@@ -57,6 +71,9 @@ public class OrderServiceImpl implements OrderService {
         this.exchangeRateService = exchangeRateService;
         this.encryptionUtil = encryptionUtil;
         this.securityUtil = securityUtil;
+        this.cartService = cartService;
+        this.orderStatisticsProvider = orderStatisticsProvider;
+        this.orderCounters = orderCounters;
     }
 
 //    @Override
@@ -168,66 +185,18 @@ public class OrderServiceImpl implements OrderService {
                         serviceProduct.getId()
                 );
 
-        // 4️⃣ Fetch price configuration
-        ServiceProductPrice productPrice = servicePlan.getProductPrice();
-        if (productPrice == null) {
-            log.error("No price configured for service plan ID: {}", servicePlan.getId());
-            throw new ResourceNotFoundException(
-                    "Price not configured for the selected service plan");
-        }
-
-        // 5️⃣ Resolve base price (fixed or dynamic)
-        BigDecimal basePrice = resolveBasePrice(servicePlan, request);
-
-        // 6️⃣ Get conversion rate
-        BigDecimal conversionRate = exchangeRateService.getConversionRate(
-                productPrice.getDefaultCurrency(),
-                Currency.NGN
-        );
-
-        log.debug("Conversion rate from {} to NGN: {}",
-                productPrice.getDefaultCurrency(), conversionRate);
-
-        // 7️⃣ Calculate amount in NGN
-        BigDecimal amountInNGN = basePrice
-                .multiply(conversionRate)
-                .setScale(4, RoundingMode.HALF_UP);
-
-        // 8️⃣ Calculate service fee
-        BigDecimal serviceFee = amountInNGN
-                .multiply(productPrice.getServiceFeePercentage())
-                .setScale(4, RoundingMode.HALF_UP);
-
-        // 9️⃣ Build order
-        Order order = buildOrder(
+        // 4️⃣ Price, build and encrypt the order
+        Order order = priceOrder(
                 currentUser,
                 serviceProduct,
                 servicePlan,
-                productPrice,
-                conversionRate,
-                amountInNGN,
-                serviceFee,
-                request
+                request,
+                currency -> exchangeRateService.getConversionRate(currency, Currency.NGN)
         );
 
-        // 🔐 Encrypt credentials if provided
-        if (request.getCredentialUsernameOrEmail() != null) {
-            order.setCredentialUsernameOrEmail(
-                    encryptionUtil.encrypt(request.getCredentialUsernameOrEmail())
-            );
-        }
-
-        if (request.getCredentialPassword() != null) {
-            order.setCredentialPassword(
-                    encryptionUtil.encrypt(request.getCredentialPassword())
-            );
-        }
-
-        // 🔢 Calculate total
-        order.calculateTotalAmount();
-
         // 💾 Save
         Order savedOrder = orderRepository.save(order);
+        orderCounters.recordCreated(savedOrder);
 
         log.info("Successfully created order with reference: {}. Total: {} {}. isInCart: {}",
                 savedOrder.getOrderReference(),
@@ -243,24 +212,105 @@ public class OrderServiceImpl implements OrderService {
                 .build();
     }
 
+    @Override
+    @SneakyThrows
+    public GenericResponse createOrdersBatch(BatchOrderRequestDto request) {
+        List<OrderRequestDto> requests = request.getOrders();
+        log.info("Creating batch of {} orders", requests.size());
+
+        User currentUser = securityUtil.getCurrentLoggedInUser();
+
+        // One IN query each for products and plans (with their prices)
+        Set<Long> productIds = requests.stream()
+                .map(OrderRequestDto::getServiceProductId)
+                .collect(Collectors.toSet());
+        Set<Long> planIds = requests.stream()
+                .map(OrderRequestDto::getServicePlanId)
+                .collect(Collectors.toSet());
+
+        Map<Long, ServiceProduct> products = serviceProductRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(ServiceProduct::getId, Function.identity()));
+        Map<Long, ServiceProductPlan> plans = servicePlanRepository.findAllWithPriceByIdIn(planIds).stream()
+                .collect(Collectors.toMap(ServiceProductPlan::getId, Function.identity()));
+
+        // FX resolved once per source currency
+        Map<Currency, BigDecimal> conversionRates = new EnumMap<>(Currency.class);
+
+        List<Order> orders = new ArrayList<>(requests.size());
+        for (OrderRequestDto item : requests) {
+            ServiceProduct serviceProduct = products.get(item.getServiceProductId());
+            if (serviceProduct == null) {
+                throw new ResourceNotFoundException(
+                        "Service product not found with ID: " + item.getServiceProductId());
+            }
+            checkProductOrderable(serviceProduct);
+
+            ServiceProductPlan servicePlan = plans.get(item.getServicePlanId());
+            if (servicePlan == null) {
+                throw new ResourceNotFoundException(
+                        "Service plan not found with ID: " + item.getServicePlanId());
+            }
+            checkPlanOrderable(servicePlan, serviceProduct.getId());
+
+            orders.add(priceOrder(
+                    currentUser,
+                    serviceProduct,
+                    servicePlan,
+                    item,
+                    currency -> conversionRates.computeIfAbsent(
+                            currency,
+                            source -> exchangeRateService.getConversionRate(source, Currency.NGN))
+            ));
+        }
+
+        // Attach to the active cart in the same transaction
+        Cart cart = cartService.findOrCreateActiveCart(currentUser.getId());
+
+        if (!cart.canBeModified()) {
+            throw new InvalidOperationException(
+                    "Cart cannot be modified in its current status: " + cart.getStatus());
+        }
+
+        orders.forEach(cart::addOrder);
+        List<Order> savedOrders = orderRepository.saveAll(orders);
+        savedOrders.forEach(orderCounters::recordCreated);
+
+        log.info("Successfully created {} orders for user {} in cart {}",
+                savedOrders.size(), currentUser.getId(), cart.getCartReference());
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("cartId", cart.getId());
+        data.put("cartReference", cart.getCartReference());
+        data.put("cartTotal", cart.getTotalAmount());
+        data.put("orders", savedOrders.stream()
+                .map(order -> mapToResponseDto(order, false))
+                .toList());
+
+        return GenericResponse.builder()
+                .isSuccess(true)
+                .message("Orders created and added to cart successfully")
+                .httpStatus(HttpStatus.CREATED)
+                .data(data)
+                .build();
+    }
+
     @SneakyThrows
     @Override
     @Transactional(readOnly = true)
     public GenericResponse getOrderById(Long orderId) {
         log.info("Retrieving order with ID: {}", orderId);
 
-        User currentUser = securityUtil.getCurrentLoggedInUser();
+        Long currentUserId = securityUtil.getCurrentUserId();
+        boolean isAdmin = securityUtil.isAdmin();
         Order order = findOrderById(orderId);
 
         // Check authorization - users can only view their own orders
-        if (!order.getUserId().equals(currentUser.getId()) && 
-            !hasAdminRole(currentUser)) {
+        if (!order.getUserId().equals(currentUserId) && !isAdmin) {
             log.warn("User {} attempted to access order {} belonging to user {}", 
-                    currentUser.getId(), orderId, order.getUserId());
+                    currentUserId, orderId, order.getUserId());
             throw new InvalidOperationException("You are not authorized to view this order");
         }
 
-        boolean isAdmin = hasAdminRole(currentUser);
         return GenericResponse.builder()
                 .isSuccess(true)
                 .message("Order retrieved successfully")
@@ -275,18 +325,17 @@ public class OrderServiceImpl implements OrderService {
     public GenericResponse getOrderByReference(String orderReference) {
         log.info("Retrieving order with reference: {}", orderReference);
 
-        User currentUser = securityUtil.getCurrentLoggedInUser();
+        Long currentUserId = securityUtil.getCurrentUserId();
+        boolean isAdmin = securityUtil.isAdmin();
         Order order = orderRepository.findByOrderReference(orderReference)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Order not found with reference: " + orderReference));
 
         // Check authorization
-        if (!order.getUserId().equals(currentUser.getId()) && 
-            !hasAdminRole(currentUser)) {
+        if (!order.getUserId().equals(currentUserId) && !isAdmin) {
             throw new InvalidOperationException("You are not authorized to view this order");
         }
 
-        boolean isAdmin = hasAdminRole(currentUser);
         return GenericResponse.builder()
                 .isSuccess(true)
                 .message("Order retrieved successfully")
@@ -297,24 +346,29 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @Transactional(readOnly = true)
-    public GenericResponse getUserOrders(Pageable pageable) {
+    public GenericResponse getUserOrders(String after, Pageable pageable) {
         log.info("Retrieving orders for current user");
 
-        User currentUser = securityUtil.getCurrentLoggedInUser();
-        Page<Order> orders = orderRepository.findByUserId(
-                currentUser.getId(), 
-                pageable
-        );
+        Long userId = securityUtil.getCurrentUserId();
 
-        Page<OrderResponseDto> responseDtos = orders.map(
-                order -> mapToResponseDto(order, false)
-        );
+        Object data;
+        if (after != null) {
+            data = findOrdersAfter(
+                    OrderSpecification.hasUserId(userId),
+                    PageCursor.decode(after),
+                    pageable.getPageSize(),
+                    false
+            );
+        } else {
+            data = orderRepository.findByUserId(userId, pageable)
+                    .map(order -> mapToResponseDto(order, false));
+        }
 
         return GenericResponse.builder()
                 .isSuccess(true)
                 .message("User orders retrieved successfully")
                 .httpStatus(HttpStatus.OK)
-                .data(responseDtos)
+                .data(data)
                 .build();
     }
 
@@ -323,9 +377,8 @@ public class OrderServiceImpl implements OrderService {
     public GenericResponse getUserOrdersByStatus(OrderStatus status, Pageable pageable) {
         log.info("Retrieving orders for current user with status: {}", status);
 
-        User currentUser = securityUtil.getCurrentLoggedInUser();
         Page<Order> orders = orderRepository.findByUserIdAndStatus(
-                currentUser.getId(),
+                securityUtil.getCurrentUserId(),
                 status,
                 pageable
         );
@@ -347,36 +400,54 @@ public class OrderServiceImpl implements OrderService {
     public GenericResponse getAllOrders(
             OrderStatus status,
             OrderAction action,
+            LocalDateTime createdFrom,
+            LocalDateTime createdTo,
+            Long serviceProductId,
+            Long userId,
+            String after,
             Pageable pageable) {
 
-        log.info("Admin retrieving orders with filters - status: {}, action: {}",
-                status, action);
+        log.info("Admin retrieving orders with filters - status: {}, action: {}, from: {}, to: {}, product: {}, user: {}",
+                status, action, createdFrom, createdTo, serviceProductId, userId);
 
-        Page<Order> orders;
+        Specification<Order> spec = OrderSpecification.combineFilters(
+                status, action, createdFrom, createdTo, serviceProductId, userId);
 
-        if (status != null && action != null) {
-            // Custom query needed for both filters
-            orders = orderRepository.findAll(pageable);
-        } else if (status != null) {
-            orders = orderRepository.findByStatus(status, pageable);
-        } else if (action != null) {
-            orders = orderRepository.findByAction(action, pageable);
+        Object data;
+        if (after != null) {
+            data = findOrdersAfter(spec, PageCursor.decode(after), pageable.getPageSize(), true);
         } else {
-            orders = orderRepository.findAll(pageable);
+            data = orderRepository.findAll(spec, pageable)
+                    .map(order -> mapToResponseDto(order, true));
         }
 
-        Page<OrderResponseDto> responseDtos = orders.map(
-                order -> mapToResponseDto(order, true)
-        );
-
         return GenericResponse.builder()
                 .isSuccess(true)
                 .message("Orders retrieved successfully")
                 .httpStatus(HttpStatus.OK)
-                .data(responseDtos)
+                .data(data)
                 .build();
     }
 
+    /**
+     * Keyset page of orders, newest first, without a count query
+     */
+    private CursorPageResponse<OrderResponseDto> findOrdersAfter(
+            Specification<Order> spec,
+            PageCursor cursor,
+            int size,
+            boolean isAdmin) {
+
+        List<Order> rows = orderRepository.findBy(
+                spec.and(KeysetPagination.after(cursor)),
+                query -> query
+                        .sortBy(KeysetPagination.NEWEST_FIRST)
+                        .limit(size + 1)
+                        .all());
+
+        return KeysetPagination.toPage(rows, size, order -> mapToResponseDto(order, isAdmin));
+    }
+
     @Override
     @SneakyThrows
     public GenericResponse updateOrderAction(
@@ -394,6 +465,9 @@ public class OrderServiceImpl implements OrderService {
                     "Invalid action transition from " + order.getAction() + " to " + action);
         }
 
+        OrderStatus previousStatus = order.getStatus();
+        OrderAction previousAction = order.getAction();
+
         order.setAction(action);
         if (adminNotes != null && !adminNotes.trim().isEmpty()) {
             order.setAdminNotes(adminNotes);
@@ -407,6 +481,8 @@ public class OrderServiceImpl implements OrderService {
         }
 
         Order updatedOrder = orderRepository.save(order);
+        orderCounters.recordTransition(previousStatus, previousAction,
+                updatedOrder.getStatus(), updatedOrder.getAction());
         log.info("Successfully updated order {} action to: {}", orderId, action);
 
         return GenericResponse.builder()
@@ -422,12 +498,12 @@ public class OrderServiceImpl implements OrderService {
     public GenericResponse cancelOrder(Long orderId) {
         log.info("Cancelling order with ID: {}", orderId);
 
-        User currentUser = securityUtil.getCurrentLoggedInUser();
+        Long currentUserId = securityUtil.getCurrentUserId();
+        boolean isAdmin = securityUtil.isAdmin();
         Order order = findOrderById(orderId);
 
         // Check authorization
-        if (!order.getUserId().equals(currentUser.getId()) &&
-                !hasAdminRole(currentUser)) {
+        if (!order.getUserId().equals(currentUserId) && !isAdmin) {
             throw new InvalidOperationException(
                     "You are not authorized to cancel this order");
         }
@@ -438,9 +514,14 @@ public class OrderServiceImpl implements OrderService {
                     "Order with status " + order.getStatus() + " cannot be cancelled");
         }
 
+        OrderStatus previousStatus = order.getStatus();
+        OrderAction previousAction = order.getAction();
+
         order.setStatus(OrderStatus.CANCELLED);
         order.setAction(OrderAction.REJECTED);
         Order cancelledOrder = orderRepository.save(order);
+        orderCounters.recordTransition(previousStatus, previousAction,
+                OrderStatus.CANCELLED, OrderAction.REJECTED);
 
         log.info("Successfully cancelled order: {}", order.getOrderReference());
 
@@ -448,7 +529,7 @@ public class OrderServiceImpl implements OrderService {
                 .isSuccess(true)
                 .message("Order cancelled successfully")
                 .httpStatus(HttpStatus.OK)
-                .data(mapToResponseDto(cancelledOrder, hasAdminRole(currentUser)))
+                .data(mapToResponseDto(cancelledOrder, isAdmin))
                 .build();
     }
 
@@ -466,6 +547,7 @@ public class OrderServiceImpl implements OrderService {
         }
 
         orderRepository.delete(order);
+        orderCounters.recordDeleted(order);
         log.info("Successfully deleted order: {}", order.getOrderReference());
 
         return GenericResponse.builder()
@@ -480,49 +562,7 @@ public class OrderServiceImpl implements OrderService {
     public GenericResponse getOrderStatistics() {
         log.info("Retrieving order statistics");
 
-        Map<String, Object> statistics = new HashMap<>();
-
-        // Total orders
-        statistics.put("totalOrders", orderRepository.count());
-
-        // Orders by status
-        Map<String, Long> ordersByStatus = new HashMap<>();
-        for (OrderStatus status : OrderStatus.values()) {
-            ordersByStatus.put(
-                    status.name(),
-                    orderRepository.countByStatus(status)
-            );
-        }
-        statistics.put("ordersByStatus", ordersByStatus);
-
-        // Orders by action
-        Map<String, Long> ordersByAction = new HashMap<>();
-        for (OrderAction action : OrderAction.values()) {
-            ordersByAction.put(
-                    action.name(),
-                    orderRepository.countByAction(action)
-            );
-        }
-        statistics.put("ordersByAction", ordersByAction);
-
-        // Pending admin review
-        List<OrderAction> pendingActions = List.of(
-                OrderAction.PENDING_REVIEW,
-                OrderAction.IN_PROGRESS,
-                OrderAction.REQUIRES_INFO
-        );
-        statistics.put(
-                "pendingAdminReview",
-                orderRepository.countByActionIn(pendingActions)
-        );
-
-        // ✅ Total Revenue (ONLY SUCCESSFUL PAYMENTS)
-        BigDecimal totalRevenue =
-                Optional.ofNullable(
-                        paymentRepository.sumAmountByStatus(PaymentStatus.SUCCESS)
-                ).orElse(BigDecimal.ZERO);
-
-        statistics.put("totalRevenue", totalRevenue);
+        Map<String, Object> statistics = orderStatisticsProvider.getStatistics();
 
         return GenericResponse.builder()
                 .isSuccess(true)
@@ -540,23 +580,15 @@ public class OrderServiceImpl implements OrderService {
                         "Order not found with ID: " + orderId));
     }
 
-    @SneakyThrows
     private ServiceProduct validateAndFetchServiceProduct(Long serviceProductId) {
         ServiceProduct product = serviceProductRepository.findById(serviceProductId)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Service product not found with ID: " + serviceProductId));
 
-        if (!product.isActive()) {
-            log.error("Service product {} is not active. Current status: {}",
-                    serviceProductId, product.getStatus());
-            throw new InvalidOperationException(
-                    "Service product is not available for ordering");
-        }
-
+        checkProductOrderable(product);
         return product;
     }
 
-    @SneakyThrows
     private ServiceProductPlan validateAndFetchServicePlan(
             Long servicePlanId,
             Long serviceProductId) {
@@ -565,23 +597,99 @@ public class OrderServiceImpl implements OrderService {
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Service plan not found with ID: " + servicePlanId));
 
+        checkPlanOrderable(plan, serviceProductId);
+        return plan;
+    }
+
+    @SneakyThrows
+    private void checkProductOrderable(ServiceProduct product) {
+        if (!product.isActive()) {
+            log.error("Service product {} is not active. Current status: {}",
+                    product.getId(), product.getStatus());
+            throw new InvalidOperationException(
+                    "Service product is not available for ordering");
+        }
+    }
+
+    @SneakyThrows
+    private void checkPlanOrderable(ServiceProductPlan plan, Long serviceProductId) {
         if (!plan.getServiceProduct().getId().equals(serviceProductId)) {
             log.error("Service plan {} does not belong to service product {}",
-                    servicePlanId, serviceProductId);
+                    plan.getId(), serviceProductId);
             throw new InvalidOperationException(
                     "Selected plan does not belong to the specified service product");
         }
 
         if (!ServiceProductPlanStatus.ACTIVE.equals(plan.getStatus())) {
             log.error("Service plan {} is not active. Current status: {}",
-                    servicePlanId, plan.getStatus());
+                    plan.getId(), plan.getStatus());
             throw new InvalidOperationException(
                     "Selected service plan is not available");
         }
-
-        return plan;
     }
 
+    /**
+     * Prices an order in NGN and builds it with encrypted credentials and its total.
+     * The conversion rate is looked up from the price's default currency, so a
+     * batch can pass a per-request cache instead of the exchange rate service.
+     */
+    private Order priceOrder(
+            User user,
+            ServiceProduct serviceProduct,
+            ServiceProductPlan servicePlan,
+            OrderRequestDto request,
+            Function<Currency, BigDecimal> conversionRates) {
+
+        // Fetch price configuration
+        ServiceProductPrice productPrice = servicePlan.getProductPrice();
+        if (productPrice == null) {
+            log.error("No price configured for service plan ID: {}", servicePlan.getId());
+            throw new ResourceNotFoundException(
+                    "Price not configured for the selected service plan");
+        }
+
+        // Resolve base price (fixed or dynamic)
+        BigDecimal basePrice = resolveBasePrice(servicePlan, request);
+
+        BigDecimal conversionRate = conversionRates.apply(productPrice.getDefaultCurrency());
+        log.debug("Conversion rate from {} to NGN: {}",
+                productPrice.getDefaultCurrency(), conversionRate);
+
+        BigDecimal amountInNGN = basePrice
+                .multiply(conversionRate)
+                .setScale(4, RoundingMode.HALF_UP);
+
+        BigDecimal serviceFee = amountInNGN
+                .multiply(productPrice.getServiceFeePercentage())
+                .setScale(4, RoundingMode.HALF_UP);
+
+        Order order = buildOrder(
+                user,
+                serviceProduct,
+                servicePlan,
+                productPrice,
+                conversionRate,
+                amountInNGN,
+                serviceFee,
+                request
+        );
+
+        // 🔐 Encrypt credentials if provided
+        if (request.getCredentialUsernameOrEmail() != null) {
+            order.setCredentialUsernameOrEmail(
+                    encryptionUtil.encrypt(request.getCredentialUsernameOrEmail())
+            );
+        }
+
+        if (request.getCredentialPassword() != null) {
+            order.setCredentialPassword(
+                    encryptionUtil.encrypt(request.getCredentialPassword())
+            );
+        }
+
+        order.calculateTotalAmount();
+        return order;
+    }
 
     private BigDecimal resolveBasePrice(ServiceProductPlan servicePlan, OrderRequestDto request) {
         ServiceProductPrice productPrice = servicePlan.getProductPrice();
@@ -687,12 +795,6 @@ public class OrderServiceImpl implements OrderService {
         return builder.build();
     }
 
-    private boolean hasAdminRole(User user) {
-        return user.getRoles().stream()
-                .anyMatch(role -> role.getRoleName().equals("ROLE_ADMIN") ||
-                        role.getRoleName().equals("ROLE_SUPER_ADMIN"));
-    }
-
     private boolean isValidActionTransition(OrderAction current, OrderAction next) {
         // Define valid transitions
         if (current == OrderAction.PENDING_REVIEW) {
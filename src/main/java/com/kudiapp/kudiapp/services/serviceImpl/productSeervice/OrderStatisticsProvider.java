@@ -0,0 +1,104 @@
+package com.kudiapp.kudiapp.services.serviceImpl.productSeervice;
+
+import com.kudiapp.kudiapp.dto.productService.RevenueByCurrency;
+import com.kudiapp.kudiapp.enums.productService.OrderAction;
+import com.kudiapp.kudiapp.enums.productService.OrderStatus;
+import com.kudiapp.kudiapp.repository.DailyRevenueRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds the admin order statistics. Order counts come from the incrementally
+ * maintained {@link OrderCounters}; revenue is summed from the daily revenue
+ * rollup and kept as a short-lived cached value so repeated dashboard refreshes
+ * are served from memory.
+ */
+@Component
+@Slf4j
+public class OrderStatisticsProvider {
+
+    private static final Set<OrderAction> PENDING_ADMIN_ACTIONS = EnumSet.of(
+            OrderAction.PENDING_REVIEW,
+            OrderAction.IN_PROGRESS,
+            OrderAction.REQUIRES_INFO
+    );
+
+    private record CachedRevenue(BigDecimal amount, Map<String, BigDecimal> byCurrency, long loadedAtMillis) {
+    }
+
+    private final OrderCounters orderCounters;
+    private final DailyRevenueRepository dailyRevenueRepository;
+    private final long ttlMs;
+
+    private volatile CachedRevenue revenue;
+
+    public OrderStatisticsProvider(OrderCounters orderCounters,
+                                   DailyRevenueRepository dailyRevenueRepository,
+                                   @Value("${app.orders.statistics.ttl-ms:30000}") long ttlMs) {
+        this.orderCounters = orderCounters;
+        this.dailyRevenueRepository = dailyRevenueRepository;
+        this.ttlMs = ttlMs;
+    }
+
+    public Map<String, Object> getStatistics() {
+        long totalOrders = 0;
+        long pendingAdminReview = 0;
+
+        Map<String, Long> ordersByStatus = new LinkedHashMap<>();
+        Map<String, Long> ordersByAction = new LinkedHashMap<>();
+        for (OrderAction action : OrderAction.values()) {
+            ordersByAction.put(action.name(), 0L);
+        }
+
+        for (OrderStatus status : OrderStatus.values()) {
+            long statusTotal = 0;
+            for (OrderAction action : OrderAction.values()) {
+                long count = orderCounters.get(status, action);
+                statusTotal += count;
+                ordersByAction.merge(action.name(), count, Long::sum);
+                if (PENDING_ADMIN_ACTIONS.contains(action)) {
+                    pendingAdminReview += count;
+                }
+            }
+            ordersByStatus.put(status.name(), statusTotal);
+            totalOrders += statusTotal;
+        }
+
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("totalOrders", totalOrders);
+        statistics.put("ordersByStatus", Collections.unmodifiableMap(ordersByStatus));
+        statistics.put("ordersByAction", Collections.unmodifiableMap(ordersByAction));
+        statistics.put("pendingAdminReview", pendingAdminReview);
+        CachedRevenue currentRevenue = getRevenue();
+        statistics.put("totalRevenue", currentRevenue.amount());
+        statistics.put("revenueByCurrency", currentRevenue.byCurrency());
+        return Collections.unmodifiableMap(statistics);
+    }
+
+    private CachedRevenue getRevenue() {
+        CachedRevenue current = revenue;
+        if (current == null || System.currentTimeMillis() - current.loadedAtMillis() > ttlMs) {
+            // The rollup only counts successful payments
+            List<RevenueByCurrency> totals = dailyRevenueRepository.sumByCurrency();
+
+            BigDecimal amount = BigDecimal.ZERO;
+            Map<String, BigDecimal> byCurrency = new LinkedHashMap<>();
+            for (RevenueByCurrency total : totals) {
+                amount = amount.add(total.totalAmount());
+                byCurrency.put(total.currency(), total.totalAmount());
+            }
+            current = new CachedRevenue(amount, Collections.unmodifiableMap(byCurrency), System.currentTimeMillis());
+            revenue = current;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,87 @@
+package com.kudiapp.kudiapp.services.serviceImpl.productSeervice;
+
+import com.kudiapp.kudiapp.enums.PaymentStatus;
+import com.kudiapp.kudiapp.models.Payment;
+import com.kudiapp.kudiapp.models.productService.Cart;
+import com.kudiapp.kudiapp.repository.DailyRevenueRepository;
+import com.kudiapp.kudiapp.repository.PaymentRepository;
+import com.kudiapp.kudiapp.repository.UserRepository;
+import com.stripe.model.PaymentIntent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Records the {@link Payment} for a cart's payment reference from Stripe events,
+ * and keeps the daily revenue rollup in step with successful payments.
+ * <p>
+ * Must be called in the transaction that applies the event to the cart, so the
+ * payment row, the rollup and the cart status commit together.
+ */
+@Component
+@Slf4j
+public class PaymentRecorder {
+
+    private static final String CHANNEL = "stripe";
+
+    private final PaymentRepository paymentRepository;
+    private final DailyRevenueRepository dailyRevenueRepository;
+    private final UserRepository userRepository;
+
+    public PaymentRecorder(PaymentRepository paymentRepository, DailyRevenueRepository dailyRevenueRepository,
+                           UserRepository userRepository) {
+        this.paymentRepository = paymentRepository;
+        this.dailyRevenueRepository = dailyRevenueRepository;
+        this.userRepository = userRepository;
+    }
+
+    public void recordSucceeded(Cart cart, PaymentIntent intent, Instant paidAt) {
+        Payment payment = findOrCreate(cart, intent);
+        if (payment.getStatus() == PaymentStatus.SUCCESS) {
+            return;
+        }
+
+        payment.setStatus(PaymentStatus.SUCCESS);
+        payment.setAmount(cart.getTotalAmount());
+        payment.setPaidAt(paidAt);
+        payment.setGatewayResponse(intent.getId());
+        paymentRepository.save(payment);
+
+        dailyRevenueRepository.addPayment(
+                LocalDate.ofInstant(paidAt, ZoneOffset.UTC),
+                payment.getCurrency(),
+                cart.getTotalAmount()
+        );
+
+        log.info("Recorded successful payment {} for cart {}", payment.getReference(), cart.getId());
+    }
+
+    public void recordFailed(Cart cart, PaymentIntent intent) {
+        Payment payment = findOrCreate(cart, intent);
+        if (payment.getStatus() == PaymentStatus.SUCCESS) {
+            return;
+        }
+
+        payment.setStatus(PaymentStatus.FAILED);
+        payment.setGatewayResponse(intent.getId());
+        paymentRepository.save(payment);
+    }
+
+    private Payment findOrCreate(Cart cart, PaymentIntent intent) {
+        return paymentRepository.findByReference(cart.getPaymentReference())
+                .orElseGet(() -> Payment.builder()
+                        .reference(cart.getPaymentReference())
+                        .productReference(cart.getCartReference())
+                        .amount(cart.getTotalAmount())
+                        .currency(cart.getCurrency().name())
+                        .email(userRepository.findEmailById(cart.getUserId())
+                                .orElse(intent.getReceiptEmail() != null ? intent.getReceiptEmail() : ""))
+                        .status(PaymentStatus.PENDING)
+                        .channel(CHANNEL)
+                        .createdAt(Instant.now())
+                        .build());
+    }
+}
@@ -3,53 +3,85 @@ package com.kudiapp.kudiapp.services.serviceImpl.productSeervice;
 import com.kudiapp.kudiapp.dto.GenericResponse;
 import com.kudiapp.kudiapp.dto.request.payment.InitPaymentRequest;
 import com.kudiapp.kudiapp.dto.request.payment.InitPaymentResponse;
+import com.kudiapp.kudiapp.dto.request.payment.PaymentVerificationResponse;
+import com.kudiapp.kudiapp.dto.productService.CartPaymentState;
+import com.kudiapp.kudiapp.dto.productService.DailyRevenueResponse;
 import com.kudiapp.kudiapp.enums.productService.CartStatus;
-import com.kudiapp.kudiapp.enums.productService.OrderStatus;
 import com.kudiapp.kudiapp.exceptions.FailedProcessException;
+import com.kudiapp.kudiapp.exceptions.InvalidRequestException;
+import com.kudiapp.kudiapp.exceptions.PaymentGatewayException;
 import com.kudiapp.kudiapp.exceptions.InvalidOperationException;
 import com.kudiapp.kudiapp.exceptions.ResourceNotFoundException;
 import com.kudiapp.kudiapp.models.productService.Cart;
+import com.kudiapp.kudiapp.models.productService.WebhookEvent;
 import com.kudiapp.kudiapp.repository.CartRepository;
-import com.kudiapp.kudiapp.repository.OrderRepository;
+import com.kudiapp.kudiapp.repository.DailyRevenueRepository;
+import com.kudiapp.kudiapp.services.productService.PaymentGateway;
 import com.kudiapp.kudiapp.services.productService.PaymentService;
 import com.stripe.Stripe;
 import com.stripe.exception.SignatureVerificationException;
-import com.stripe.exception.StripeException;
 import com.stripe.model.Event;
-import com.stripe.model.PaymentIntent;
-import com.stripe.model.PaymentIntentSearchResult;
-import com.stripe.model.checkout.Session;
 import com.stripe.net.Webhook;
-import com.stripe.param.PaymentIntentSearchParams;
-import com.stripe.param.checkout.SessionCreateParams;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
-import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 @Slf4j
 public class PaymentServiceImpl implements PaymentService {
 
+    private static final int DEFAULT_REVENUE_DAYS = 30;
+    private static final int MAX_REVENUE_DAYS = 366;
+
     @Value("${stripe.secret-key}")
     private String stripeSecretKey;
 
     @Value("${stripe.webhook-secret}")
     private String stripeWebhookSecret;
 
-    private final OrderRepository orderRepository;
-    private final CartRepository cartRepository;
+    // How long a coalesced verification waits for the shared Stripe call
+    @Value("${app.payments.verify.wait-ms:20000}")
+    private long verifyWaitMs;
 
-    public PaymentServiceImpl(OrderRepository orderRepository, CartRepository cartRepository) {
-        this.orderRepository = orderRepository;
+    private final CartRepository cartRepository;
+    private final PaymentGateway paymentGateway;
+    private final CheckoutOutbox checkoutOutbox;
+    private final StripeWebhookInbox stripeWebhookInbox;
+    private final StripeWebhookDispatcher stripeWebhookDispatcher;
+    private final MeterRegistry meterRegistry;
+    private final DailyRevenueRepository dailyRevenueRepository;
+
+    // Stripe lookups currently running, by payment reference
+    private final ConcurrentHashMap<String, CompletableFuture<GenericResponse>> verificationsInFlight =
+            new ConcurrentHashMap<>();
+
+    public PaymentServiceImpl(CartRepository cartRepository, PaymentGateway paymentGateway,
+                              CheckoutOutbox checkoutOutbox, StripeWebhookInbox stripeWebhookInbox,
+                              StripeWebhookDispatcher stripeWebhookDispatcher, MeterRegistry meterRegistry,
+                              DailyRevenueRepository dailyRevenueRepository) {
         this.cartRepository = cartRepository;
+        this.paymentGateway = paymentGateway;
+        this.checkoutOutbox = checkoutOutbox;
+        this.stripeWebhookInbox = stripeWebhookInbox;
+        this.stripeWebhookDispatcher = stripeWebhookDispatcher;
+        this.meterRegistry = meterRegistry;
+        this.dailyRevenueRepository = dailyRevenueRepository;
     }
 
     @PostConstruct
@@ -59,6 +91,9 @@ public class PaymentServiceImpl implements PaymentService {
 
     /**
      * 1️⃣ Initialize Payment (PaymentIntent + optional Checkout URL)
+     * <p>
+     * Not transactional: the cart is read and the session recorded in separate
+     * short transactions, with no connection held during the Stripe call.
      */
     @Override
     public InitPaymentResponse initializePayment(InitPaymentRequest request) {
@@ -74,49 +109,33 @@ public class PaymentServiceImpl implements PaymentService {
                 throw new FailedProcessException("Cart not ready for payment");
             }
 
-            Long amountInKobo = cart.getTotalAmount()
-                    .multiply(BigDecimal.valueOf(100))
-                    .longValue();
-
-            SessionCreateParams sessionParams = SessionCreateParams.builder()
-                    .setMode(SessionCreateParams.Mode.PAYMENT)
-                    .setSuccessUrl(request.getSuccessUrl())
-                    .setCancelUrl(request.getCancelUrl())
-                    .addLineItem(
-                            SessionCreateParams.LineItem.builder()
-                                    .setQuantity(1L)
-                                    .setPriceData(
-                                            SessionCreateParams.LineItem.PriceData.builder()
-                                                    .setCurrency(cart.getCurrency().name().toLowerCase())
-                                                    .setUnitAmount(amountInKobo)
-                                                    .setProductData(
-                                                            SessionCreateParams.LineItem.PriceData.ProductData.builder()
-                                                                    .setName("Cart #" + cart.getCartReference())
-                                                                    .build()
-                                                    )
-                                                    .build()
-                                    )
-                                    .build()
+            PaymentGateway.CheckoutSession session = paymentGateway.createCheckoutSession(
+                    new PaymentGateway.CheckoutSessionRequest(
+                            null,
+                            cart.getTotalAmount(),
+                            cart.getCurrency(),
+                            "Cart #" + cart.getCartReference(),
+                            request.getSuccessUrl(),
+                            request.getCancelUrl(),
+                            Map.of(
+                                    "reference", cart.getPaymentReference(),
+                                    "cartId", cart.getId().toString(),
+                                    "userId", cart.getUserId().toString()
+                            )
                     )
-                    .putMetadata("reference", cart.getPaymentReference())
-                    .putMetadata("cartId", cart.getId().toString())
-                    .putMetadata("userId", cart.getUserId().toString())
-                    .build();
-
-            Session session = Session.create(sessionParams);
+            );
 
             // Optional: store session ID
-            cart.setStripeSessionId(session.getId());
-            cartRepository.save(cart);
+            checkoutOutbox.recordSessionForCart(cart.getId(), session.id());
 
             return new InitPaymentResponse(
                     null, // No PaymentIntent needed
                     null,
-                    session.getUrl()
+                    session.url()
             );
 
-        } catch (StripeException e) {
-            log.error("Stripe checkout session creation failed", e);
+        } catch (PaymentGatewayException e) {
+            log.error("Stripe checkout session creation failed: {}", e.getMessage());
             throw new FailedProcessException("Unable to initialize payment");
         }
     }
@@ -150,20 +169,81 @@ public class PaymentServiceImpl implements PaymentService {
 //    }
 
     /**
-     * 2️⃣ Verify Payment (Query Stripe)
+     * 2️⃣ Verify Payment
+     * <p>
+     * Answered from the cart's payment state once a webhook has settled it. Only
+     * references still in flight are looked up on Stripe, and concurrent polls for
+     * the same reference share one upstream call.
      */
     @Override
     public GenericResponse verifyPayment(String reference) {
+        Optional<CartPaymentState> state = cartRepository.findPaymentStateByPaymentReference(reference);
+
+        if (state.isEmpty()) {
+            meterRegistry.counter("payments.verify", "source", "local").increment();
+            return new GenericResponse(
+                    false,
+                    "Payment not found",
+                    HttpStatus.NOT_FOUND
+            );
+        }
+
+        CartPaymentState cart = state.get();
+
+        switch (cart.status()) {
+            case COMPLETED -> {
+                meterRegistry.counter("payments.verify", "source", "local").increment();
+                return new GenericResponse(
+                        true,
+                        "Payment successful",
+                        HttpStatus.OK,
+                        toVerification(cart, "succeeded", "local")
+                );
+            }
+            case ABANDONED, EXPIRED -> {
+                meterRegistry.counter("payments.verify", "source", "local").increment();
+                return new GenericResponse(
+                        false,
+                        "Payment not completed",
+                        HttpStatus.BAD_REQUEST,
+                        cart.status().name().toLowerCase()
+                );
+            }
+            // A failed payment intent can still be retried and succeed, so FAILED is not final here
+            default -> {
+                return verifyWithStripe(cart);
+            }
+        }
+    }
+
+    private GenericResponse verifyWithStripe(CartPaymentState cart) {
+        String reference = cart.paymentReference();
+
+        CompletableFuture<GenericResponse> call = new CompletableFuture<>();
+        CompletableFuture<GenericResponse> inFlight = verificationsInFlight.putIfAbsent(reference, call);
+        if (inFlight != null) {
+            meterRegistry.counter("payments.verify", "source", "coalesced").increment();
+            return awaitVerification(inFlight);
+        }
+
+        meterRegistry.counter("payments.verify", "source", "stripe").increment();
         try {
-            PaymentIntentSearchParams params =
-                    PaymentIntentSearchParams.builder()
-                            .setQuery("metadata['reference']:'" + reference + "'")
-                            .build();
+            GenericResponse response = queryStripe(cart);
+            call.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            verificationsInFlight.remove(reference, call);
+        }
+    }
 
-            PaymentIntentSearchResult result =
-                    PaymentIntent.search(params);
+    private GenericResponse queryStripe(CartPaymentState cart) {
+        try {
+            Optional<String> found = paymentGateway.findPaymentStatus(cart.paymentReference());
 
-            if (result.getData().isEmpty()) {
+            if (found.isEmpty()) {
                 return new GenericResponse(
                         false,
                         "Payment not found",
@@ -171,14 +251,14 @@ public class PaymentServiceImpl implements PaymentService {
                 );
             }
 
-            PaymentIntent intent = result.getData().get(0);
+            String status = found.get();
 
-            if ("succeeded".equals(intent.getStatus())) {
+            if ("succeeded".equals(status)) {
                 return new GenericResponse(
                         true,
                         "Payment successful",
                         HttpStatus.OK,
-                        intent
+                        toVerification(cart, status, "stripe")
                 );
             }
 
@@ -186,112 +266,100 @@ public class PaymentServiceImpl implements PaymentService {
                     false,
                     "Payment not completed",
                     HttpStatus.BAD_REQUEST,
-                    intent.getStatus()
+                    status
             );
 
-        } catch (StripeException e) {
-            log.error("Error verifying payment", e);
-            return new GenericResponse(
-                    false,
-                    "Verification failed",
-                    HttpStatus.INTERNAL_SERVER_ERROR
-            );
+        } catch (PaymentGatewayException e) {
+            log.error("Error verifying payment: {}", e.getMessage());
+            return verificationFailed();
         }
     }
 
+    private GenericResponse awaitVerification(CompletableFuture<GenericResponse> call) {
+        try {
+            return call.get(verifyWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return verificationFailed();
+        } catch (ExecutionException | TimeoutException e) {
+            return verificationFailed();
+        }
+    }
+
+    private static GenericResponse verificationFailed() {
+        return new GenericResponse(
+                false,
+                "Verification failed",
+                HttpStatus.INTERNAL_SERVER_ERROR
+        );
+    }
+
+    private static PaymentVerificationResponse toVerification(CartPaymentState cart, String status, String source) {
+        return new PaymentVerificationResponse(
+                cart.paymentReference(),
+                status,
+                cart.totalAmount(),
+                cart.currency().name(),
+                source
+        );
+    }
+
     /**
      * 3️⃣ Validate Stripe Webhook Signature
      */
     @Override
-    public boolean isSignatureValid(String payload, String signatureHeader) {
+    public Optional<Event> verifyWebhook(String payload, String signatureHeader) {
         try {
-            Webhook.constructEvent(
+            return Optional.of(Webhook.constructEvent(
                     payload,
                     signatureHeader,
                     stripeWebhookSecret
-            );
-            return true;
+            ));
         } catch (SignatureVerificationException e) {
-            log.error("Invalid Stripe webhook signature", e);
-            return false;
+            meterRegistry.counter("webhooks.signature.invalid").increment();
+            log.warn("Invalid Stripe webhook signature: {}", e.getMessage());
+            return Optional.empty();
         }
     }
 
     /**
-     * 4️⃣ Process Webhook (Async)
+     * 4️⃣ Store the verified webhook and hand it to the webhook executor
+     * <p>
+     * Only the inbox insert runs on the request thread; the event is processed
+     * on the webhook executor, see {@link StripeWebhookDispatcher}. Redeliveries
+     * of an already stored event are acknowledged without being stored again.
      */
-    @Async
     @Override
-    @Transactional
-    public void processWebhookAsync(String payload) {
-        try {
-
-            Event event = Event.GSON.fromJson(payload, Event.class);
-            log.info("Stripe Event Type: {}", event.getType());
-
-            switch (event.getType()) {
-
-                case "payment_intent.succeeded" -> {
-
-                    PaymentIntent intent =
-                            (PaymentIntent) event.getDataObjectDeserializer()
-                                    .getObject()
-                                    .orElseThrow();
-
-                    String reference = intent.getMetadata().get("reference");
-
-                    log.info("Payment succeeded for reference={}", reference);
-
-                    Cart cart = cartRepository
-                            .findByPaymentReference(reference)
-                            .orElseThrow(() ->
-                                    new ResourceNotFoundException("Cart not found"));
-
-                    // Prevent double processing
-                    if (cart.getStatus() == CartStatus.COMPLETED) {
-                        log.info("Cart already marked as PAID");
-                        return;
-                    }
-
-                    // 1️⃣ Mark cart paid
-                    cart.setStatus(CartStatus.COMPLETED);
-                    cartRepository.save(cart);
-
-                    // 2️⃣ Mark orders paid
-                    cart.getOrders().forEach(order ->
-                            order.setStatus(OrderStatus.PAID)
-                    );
-
-                    orderRepository.saveAll(cart.getOrders());
-
-                    log.info("Cart {} successfully marked as PAID", cart.getId());
-                }
-
-                case "payment_intent.payment_failed" -> {
-
-                    PaymentIntent intent =
-                            (PaymentIntent) event.getDataObjectDeserializer()
-                                    .getObject()
-                                    .orElseThrow();
-
-                    String reference = intent.getMetadata().get("reference");
-
-                    Cart cart = cartRepository
-                            .findByPaymentReference(reference)
-                            .orElseThrow();
+    public void receiveWebhook(String payload, Event event) {
+        stripeWebhookInbox.store(payload, event)
+                .map(WebhookEvent::getId)
+                .ifPresent(stripeWebhookDispatcher::dispatchAfterCommit);
+    }
 
-                    cart.setStatus(CartStatus.FAILED);
-                    cartRepository.save(cart);
+    /**
+     * 5️⃣ Daily revenue, read from the rollup (one row per day and currency)
+     */
+    @Override
+    public GenericResponse getDailyRevenue(LocalDate from, LocalDate to, String currency) {
+        LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_REVENUE_DAYS - 1);
 
-                    log.warn("Payment failed for cart {}", cart.getId());
-                }
+        if (start.isAfter(end)) {
+            throw new InvalidRequestException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_REVENUE_DAYS) {
+            throw new InvalidRequestException("Revenue range is limited to " + MAX_REVENUE_DAYS + " days");
+        }
 
-                default -> log.info("Unhandled event type: {}", event.getType());
-            }
+        List<DailyRevenueResponse> days = dailyRevenueRepository.findDaily(
+                start, end, currency != null ? currency.toUpperCase() : null);
 
-        } catch (Exception e) {
-            log.error("Webhook processing failed", e);
-        }
+        return new GenericResponse(
+                true,
+                "Daily revenue retrieved successfully",
+                HttpStatus.OK,
+                days
+        );
     }
 //    @Async
 //    @Override
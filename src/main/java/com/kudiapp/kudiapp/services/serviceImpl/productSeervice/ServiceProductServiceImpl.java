@@ -1,5 +1,6 @@
 package com.kudiapp.kudiapp.services.serviceImpl.productSeervice;
 
+import com.kudiapp.kudiapp.dto.CursorPageResponse;
 import com.kudiapp.kudiapp.dto.GenericResponse;
 import com.kudiapp.kudiapp.dto.productService.ServiceProductCreationRequest;
 import com.kudiapp.kudiapp.dto.productService.ServiceProductResponse;
@@ -13,6 +14,8 @@ import com.kudiapp.kudiapp.repository.ServiceProductRepository;
 import com.kudiapp.kudiapp.services.productService.ProductValidationService;
 import com.kudiapp.kudiapp.services.productService.ServiceProductService;
 import com.kudiapp.kudiapp.services.productService.ServiceProductSpecification;
+import com.kudiapp.kudiapp.utills.KeysetPagination;
+import com.kudiapp.kudiapp.utills.PageCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -24,6 +27,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -120,11 +124,15 @@ public class ServiceProductServiceImpl implements ServiceProductService {
             PRODUCT_TITLE title,
             UrgencyType urgency,
             ServiceProductStatus status,
+            String after,
             Pageable pageable) {
 
         log.info("Fetching service products with filters - category: {}, title: {}, urgency: {}, status: {}",
                 category, title, urgency, status);
 
+        // Decoded outside the try so a bad cursor is reported as a 400
+        PageCursor cursor = PageCursor.decode(after);
+
         try {
             Specification<ServiceProduct> spec = Specification
                     .where(ServiceProductSpecification.hasCategory(category))
@@ -132,6 +140,25 @@ public class ServiceProductServiceImpl implements ServiceProductService {
                     .and(ServiceProductSpecification.hasUrgencyType(urgency))
                     .and(ServiceProductSpecification.hasStatus(status));
 
+            if (after != null) {
+                List<ServiceProduct> rows = serviceProductRepository.findBy(
+                        spec.and(KeysetPagination.after(cursor)),
+                        query -> query
+                                .sortBy(KeysetPagination.NEWEST_FIRST)
+                                .limit(pageable.getPageSize() + 1)
+                                .all());
+
+                CursorPageResponse<ServiceProductResponse> responses =
+                        KeysetPagination.toPage(rows, pageable.getPageSize(), this::mapToResponse);
+
+                return GenericResponse.builder()
+                        .isSuccess(true)
+                        .message("Service products retrieved successfully")
+                        .httpStatus(HttpStatus.OK)
+                        .data(responses)
+                        .build();
+            }
+
             Page<ServiceProduct> products = serviceProductRepository.findAll(spec, pageable);
             Page<ServiceProductResponse> responses = products.map(this::mapToResponse);
 
@@ -0,0 +1,190 @@
+package com.kudiapp.kudiapp.services.serviceImpl.productSeervice;
+
+import com.kudiapp.kudiapp.exceptions.PaymentGatewayException;
+import com.kudiapp.kudiapp.services.productService.PaymentGateway;
+import com.kudiapp.kudiapp.utills.CircuitBreaker;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.StripeException;
+import com.stripe.model.PaymentIntent;
+import com.stripe.model.PaymentIntentSearchResult;
+import com.stripe.model.checkout.Session;
+import com.stripe.net.RequestOptions;
+import com.stripe.param.PaymentIntentSearchParams;
+import com.stripe.param.checkout.SessionCreateParams;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * {@link PaymentGateway} backed by Stripe.
+ * <p>
+ * Every call has its own connect and read timeouts and a bounded number of
+ * network retries; checkout sessions are created with the request's idempotency
+ * key so a retry never creates a second session. Connections are reused through
+ * the JDK keep-alive pool, sized with {@code http.maxConnections} unless that is
+ * already set.
+ * <p>
+ * Calls go through a {@link CircuitBreaker}. Connection errors, rate limiting and
+ * 5xx responses count as failures; once the circuit opens, calls fail fast with
+ * {@link PaymentGatewayException} until a trial call succeeds.
+ */
+@Component
+@ConditionalOnProperty(name = "app.payments.gateway", havingValue = "stripe", matchIfMissing = true)
+@Slf4j
+public class StripePaymentGateway implements PaymentGateway {
+
+    private final String secretKey;
+    private final int connectTimeoutMs;
+    private final int readTimeoutMs;
+    private final int searchReadTimeoutMs;
+    private final int maxNetworkRetries;
+    private final CircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+
+    public StripePaymentGateway(@Value("${stripe.secret-key}") String secretKey,
+                                @Value("${app.stripe.connect-timeout-ms:5000}") int connectTimeoutMs,
+                                @Value("${app.stripe.read-timeout-ms:15000}") int readTimeoutMs,
+                                @Value("${app.stripe.search-read-timeout-ms:5000}") int searchReadTimeoutMs,
+                                @Value("${app.stripe.max-network-retries:2}") int maxNetworkRetries,
+                                @Value("${app.stripe.max-connections:20}") int maxConnections,
+                                @Value("${app.stripe.breaker.failure-threshold:5}") int breakerFailureThreshold,
+                                @Value("${app.stripe.breaker.open-ms:30000}") long breakerOpenMs,
+                                MeterRegistry meterRegistry) {
+        this.secretKey = secretKey;
+        this.connectTimeoutMs = connectTimeoutMs;
+        this.readTimeoutMs = readTimeoutMs;
+        this.searchReadTimeoutMs = searchReadTimeoutMs;
+        this.maxNetworkRetries = maxNetworkRetries;
+        this.circuitBreaker = new CircuitBreaker(breakerFailureThreshold, breakerOpenMs);
+        this.meterRegistry = meterRegistry;
+
+        // Read once when the JDK keep-alive cache is first used, so it has to be set before any Stripe call
+        if (System.getProperty("http.maxConnections") == null) {
+            System.setProperty("http.maxConnections", String.valueOf(maxConnections));
+        }
+
+        Gauge.builder("payments.gateway.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("0 = closed, 1 = open, 2 = half-open")
+                .tag("provider", "stripe")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public CheckoutSession createCheckoutSession(CheckoutSessionRequest request) {
+        long amountInSmallestUnit = request.amount()
+                .multiply(BigDecimal.valueOf(100))
+                .longValue();
+
+        SessionCreateParams params = SessionCreateParams.builder()
+                .setMode(SessionCreateParams.Mode.PAYMENT)
+                .setSuccessUrl(request.successUrl())
+                .setCancelUrl(request.cancelUrl())
+                .addLineItem(
+                        SessionCreateParams.LineItem.builder()
+                                .setQuantity(1L)
+                                .setPriceData(
+                                        SessionCreateParams.LineItem.PriceData.builder()
+                                                .setCurrency(request.currency().name().toLowerCase())
+                                                .setUnitAmount(amountInSmallestUnit)
+                                                .setProductData(
+                                                        SessionCreateParams.LineItem.PriceData.ProductData.builder()
+                                                                .setName(request.productName())
+                                                                .build()
+                                                )
+                                                .build()
+                                )
+                                .build()
+                )
+                .putAllMetadata(request.metadata())
+                .build();
+
+        RequestOptions.RequestOptionsBuilder options = requestOptions(readTimeoutMs);
+
+        if (request.idempotencyKey() != null) {
+            options.setIdempotencyKey(request.idempotencyKey());
+        }
+
+        Session session = call("create_checkout_session", () -> Session.create(params, options.build()));
+        log.info("Stripe checkout session {} created", session.getId());
+        return new CheckoutSession(session.getId(), session.getUrl());
+    }
+
+    @Override
+    public Optional<String> findPaymentStatus(String reference) {
+        PaymentIntentSearchParams params = PaymentIntentSearchParams.builder()
+                .setQuery("metadata['reference']:'" + reference + "'")
+                .setLimit(1L)
+                .build();
+
+        PaymentIntentSearchResult result = call("find_payment",
+                () -> PaymentIntent.search(params, requestOptions(searchReadTimeoutMs).build()));
+        return result.getData().stream().findFirst().map(PaymentIntent::getStatus);
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return circuitBreaker.isCallPermitted();
+    }
+
+    private <T> T call(String operation, StripeCall<T> call) {
+        if (!circuitBreaker.tryAcquire()) {
+            meterRegistry.counter("payments.gateway.rejected", "operation", operation).increment();
+            throw new PaymentGatewayException("Payment provider is temporarily unavailable");
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            T result = call.execute();
+            circuitBreaker.onSuccess();
+            sample.stop(timer(operation, "success"));
+            return result;
+        } catch (StripeException e) {
+            boolean providerFailure = isProviderFailure(e);
+            if (providerFailure) {
+                circuitBreaker.onFailure();
+            } else {
+                // Stripe answered; the request itself was wrong
+                circuitBreaker.onSuccess();
+            }
+            sample.stop(timer(operation, providerFailure ? "unavailable" : "rejected_by_provider"));
+            throw new PaymentGatewayException("Stripe " + operation + " failed: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            circuitBreaker.onFailure();
+            sample.stop(timer(operation, "error"));
+            throw new PaymentGatewayException("Stripe " + operation + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    private static boolean isProviderFailure(StripeException e) {
+        Integer status = e.getStatusCode();
+        return e instanceof ApiConnectionException
+                || status == null
+                || status == 429
+                || status >= 500;
+    }
+
+    private Timer timer(String operation, String outcome) {
+        return meterRegistry.timer("payments.gateway", "provider", "stripe",
+                "operation", operation, "outcome", outcome);
+    }
+
+    private RequestOptions.RequestOptionsBuilder requestOptions(int readTimeout) {
+        return RequestOptions.builder()
+                .setApiKey(secretKey)
+                .setConnectTimeout(connectTimeoutMs)
+                .setReadTimeout(readTimeout)
+                .setMaxNetworkRetries(maxNetworkRetries);
+    }
+
+    @FunctionalInterface
+    private interface StripeCall<T> {
+        T execute() throws StripeException;
+    }
+}
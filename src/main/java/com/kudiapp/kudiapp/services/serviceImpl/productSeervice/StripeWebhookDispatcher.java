@@ -0,0 +1,150 @@
+package com.kudiapp.kudiapp.services.serviceImpl.productSeervice;
+
+import com.kudiapp.kudiapp.enums.productService.WebhookEventStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs stored webhook events on the bounded {@code webhookExecutor}.
+ * <p>
+ * New events are dispatched as soon as their inbox insert commits. A poller picks
+ * up events that are due for retry, and events whose immediate dispatch was lost
+ * to a full queue or a restart. Queue depth and lag are published as gauges:
+ * <ul>
+ *     <li>{@code webhooks.executor.queued} - tasks waiting on the executor</li>
+ *     <li>{@code webhooks.inbox.pending} - events not yet processed</li>
+ *     <li>{@code webhooks.inbox.dead} - events that exhausted their retries</li>
+ *     <li>{@code webhooks.inbox.lag.seconds} - age of the oldest pending event</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class StripeWebhookDispatcher {
+
+    private final StripeWebhookInbox inbox;
+    private final StripeWebhookHandler handler;
+    private final ThreadPoolTaskExecutor executor;
+    private final MeterRegistry meterRegistry;
+
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong dead = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public StripeWebhookDispatcher(StripeWebhookInbox inbox,
+                                   StripeWebhookHandler handler,
+                                   @Qualifier("webhookExecutor") ThreadPoolTaskExecutor executor,
+                                   MeterRegistry meterRegistry) {
+        this.inbox = inbox;
+        this.handler = handler;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("webhooks.executor.queued", executor,
+                        e -> e.getThreadPoolExecutor().getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("webhooks.executor.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .register(meterRegistry);
+        Gauge.builder("webhooks.inbox.pending", pending, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("webhooks.inbox.dead", dead, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("webhooks.inbox.lag.seconds", lagSeconds, AtomicLong::get).register(meterRegistry);
+    }
+
+    /**
+     * Dispatches the event once the current transaction commits, or immediately
+     * when called outside a transaction
+     */
+    public void dispatchAfterCommit(Long webhookEventId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(webhookEventId);
+                }
+            });
+        } else {
+            dispatch(webhookEventId);
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.webhooks.poll-interval-ms:5000}",
+            initialDelayString = "${app.webhooks.poll-interval-ms:5000}"
+    )
+    public void dispatchDueEvents() {
+        try {
+            inbox.findDue().forEach(event -> dispatch(event.getId()));
+
+            StripeWebhookInbox.InboxStats stats = inbox.stats();
+            pending.set(stats.pending());
+            dead.set(stats.dead());
+            lagSeconds.set(stats.oldestPendingAt() == null
+                    ? 0
+                    : Math.max(0, Duration.between(stats.oldestPendingAt(), LocalDateTime.now()).getSeconds()));
+        } catch (Exception e) {
+            log.error("Webhook inbox poll failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void dispatch(Long webhookEventId) {
+        if (!inFlight.add(webhookEventId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    process(webhookEventId);
+                } finally {
+                    inFlight.remove(webhookEventId);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // Left in the inbox, the poller retries it once the queue drains
+            inFlight.remove(webhookEventId);
+            meterRegistry.counter("webhooks.dispatch.rejected").increment();
+            log.warn("Webhook executor full, deferring webhook event {}", webhookEventId);
+        }
+    }
+
+    private void process(Long webhookEventId) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome;
+        try {
+            outcome = handler.process(webhookEventId) ? "processed" : "skipped";
+        } catch (Exception e) {
+            outcome = recordFailure(webhookEventId, e);
+        }
+        sample.stop(meterRegistry.timer("webhooks.processing", "outcome", outcome));
+    }
+
+    private String recordFailure(Long webhookEventId, Exception cause) {
+        try {
+            WebhookEventStatus status = inbox.recordFailure(webhookEventId, cause.getMessage());
+            if (status == WebhookEventStatus.DEAD) {
+                log.error("Webhook event {} failed permanently: {}", webhookEventId, cause.getMessage(), cause);
+                return "dead";
+            }
+            log.warn("Webhook event {} failed, will retry: {}", webhookEventId, cause.getMessage());
+            return "retry";
+        } catch (Exception recordError) {
+            log.error("Could not record failure for webhook event {}: {}",
+                    webhookEventId, recordError.getMessage(), recordError);
+            return "error";
+        }
+    }
+}
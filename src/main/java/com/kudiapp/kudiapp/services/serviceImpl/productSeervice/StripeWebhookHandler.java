@@ -0,0 +1,152 @@
+package com.kudiapp.kudiapp.services.serviceImpl.productSeervice;
+
+import com.kudiapp.kudiapp.enums.productService.CartStatus;
+import com.kudiapp.kudiapp.enums.productService.OrderStatus;
+import com.kudiapp.kudiapp.enums.productService.WebhookEventStatus;
+import com.kudiapp.kudiapp.exceptions.ResourceNotFoundException;
+import com.kudiapp.kudiapp.models.productService.Cart;
+import com.kudiapp.kudiapp.models.productService.WebhookEvent;
+import com.kudiapp.kudiapp.repository.CartRepository;
+import com.kudiapp.kudiapp.repository.OrderRepository;
+import com.kudiapp.kudiapp.repository.WebhookEventRepository;
+import com.stripe.model.Event;
+import com.stripe.model.PaymentIntent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Applies a stored Stripe event to carts, orders and payments.
+ * <p>
+ * The changes and the PROCESSED mark on the inbox row commit together, so an
+ * event is either fully applied or left for retry. Exceptions are propagated to
+ * {@link StripeWebhookDispatcher}, which records the failure.
+ * <p>
+ * The inbox row and the cart are locked while the event is applied. A second
+ * processor of the same event waits and then finds it PROCESSED, and two different
+ * events for the same cart see each other's result, so the order status fan-out
+ * runs exactly once.
+ */
+@Component
+@Slf4j
+public class StripeWebhookHandler {
+
+    private final WebhookEventRepository webhookEventRepository;
+    private final CartRepository cartRepository;
+    private final OrderRepository orderRepository;
+    private final OrderCounters orderCounters;
+    private final PaymentRecorder paymentRecorder;
+
+    public StripeWebhookHandler(WebhookEventRepository webhookEventRepository, CartRepository cartRepository,
+                                OrderRepository orderRepository, OrderCounters orderCounters,
+                                PaymentRecorder paymentRecorder) {
+        this.webhookEventRepository = webhookEventRepository;
+        this.cartRepository = cartRepository;
+        this.orderRepository = orderRepository;
+        this.orderCounters = orderCounters;
+        this.paymentRecorder = paymentRecorder;
+    }
+
+    /**
+     * @return false if the event was already processed or given up on
+     */
+    @Transactional
+    public boolean process(Long webhookEventId) {
+        WebhookEvent stored = webhookEventRepository.findByIdForUpdate(webhookEventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Webhook event not found"));
+
+        if (stored.getStatus().isFinal()) {
+            return false;
+        }
+
+        Event event = Event.GSON.fromJson(stored.getPayload(), Event.class);
+        log.info("Stripe Event Type: {}", event.getType());
+
+        apply(event);
+
+        stored.setStatus(WebhookEventStatus.PROCESSED);
+        stored.setAttempts(stored.getAttempts() + 1);
+        stored.setProcessedAt(LocalDateTime.now());
+        stored.setNextAttemptAt(null);
+        stored.setLastError(null);
+        return true;
+    }
+
+    private void apply(Event event) {
+        switch (event.getType()) {
+
+            case "payment_intent.succeeded" -> {
+
+                PaymentIntent intent =
+                        (PaymentIntent) event.getDataObjectDeserializer()
+                                .getObject()
+                                .orElseThrow();
+
+                String reference = intent.getMetadata().get("reference");
+
+                log.info("Payment succeeded for reference={}", reference);
+
+                Cart cart = cartRepository
+                        .findByPaymentReferenceForUpdate(reference)
+                        .orElseThrow(() ->
+                                new ResourceNotFoundException("Cart not found"));
+
+                // Prevent double processing
+                if (cart.getStatus() == CartStatus.COMPLETED) {
+                    log.info("Cart already marked as PAID");
+                    return;
+                }
+
+                // 1️⃣ Mark cart paid
+                cart.setStatus(CartStatus.COMPLETED);
+                cartRepository.save(cart);
+
+                // 2️⃣ Mark orders paid
+                cart.getOrders().forEach(order -> {
+                    orderCounters.recordTransition(order.getStatus(), order.getAction(),
+                            OrderStatus.PAID, order.getAction());
+                    order.setStatus(OrderStatus.PAID);
+                });
+
+                orderRepository.saveAll(cart.getOrders());
+
+                // 3️⃣ Record the payment and add it to the daily revenue
+                paymentRecorder.recordSucceeded(cart, intent, Instant.ofEpochSecond(event.getCreated()));
+
+                log.info("Cart {} successfully marked as PAID", cart.getId());
+            }
+
+            case "payment_intent.payment_failed" -> {
+
+                PaymentIntent intent =
+                        (PaymentIntent) event.getDataObjectDeserializer()
+                                .getObject()
+                                .orElseThrow();
+
+                String reference = intent.getMetadata().get("reference");
+
+                Cart cart = cartRepository
+                        .findByPaymentReferenceForUpdate(reference)
+                        .orElseThrow(() ->
+                                new ResourceNotFoundException("Cart not found"));
+
+                if (cart.getStatus() == CartStatus.COMPLETED) {
+                    log.info("Cart {} already paid, ignoring failed payment event", cart.getId());
+                    return;
+                }
+
+                cart.setStatus(CartStatus.FAILED);
+                cartRepository.save(cart);
+
+                paymentRecorder.recordFailed(cart, intent);
+
+                log.warn("Payment failed for cart {}", cart.getId());
+            }
+
+            default -> log.info("Unhandled event type: {}", event.getType());
+        }
+    }
+}
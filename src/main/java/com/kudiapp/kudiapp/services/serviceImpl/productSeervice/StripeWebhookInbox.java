@@ -0,0 +1,176 @@
+package com.kudiapp.kudiapp.services.serviceImpl.productSeervice;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kudiapp.kudiapp.enums.productService.WebhookEventStatus;
+import com.kudiapp.kudiapp.exceptions.ResourceNotFoundException;
+import com.kudiapp.kudiapp.models.productService.WebhookEvent;
+import com.kudiapp.kudiapp.repository.WebhookEventRepository;
+import com.stripe.model.Event;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Durable inbox for verified Stripe webhook deliveries.
+ * <p>
+ * {@link #store} only writes the raw payload, so the webhook can be acknowledged
+ * as soon as that insert commits. Redeliveries of an event are rejected by its
+ * Stripe event id, checked in three steps: a bounded in-memory set of recently
+ * stored ids, then a lookup in the inbox table, and finally the table's unique
+ * constraint, which catches a concurrent delivery that passed both checks.
+ * Processing happens later through {@link StripeWebhookDispatcher}; failures are
+ * recorded here with exponential backoff until the event is processed or marked
+ * DEAD.
+ */
+@Component
+@Slf4j
+public class StripeWebhookInbox {
+
+    static final List<WebhookEventStatus> PENDING_STATUSES =
+            List.of(WebhookEventStatus.RECEIVED, WebhookEventStatus.RETRY);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final WebhookEventRepository webhookEventRepository;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, Boolean> storedEventIds;
+    private final long dispatchGraceMs;
+    private final long retryBaseMs;
+    private final long retryMaxMs;
+    private final int maxAttempts;
+
+    public StripeWebhookInbox(WebhookEventRepository webhookEventRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.webhooks.seen-cache.max-size:50000}") long seenCacheMaxSize,
+                              @Value("${app.webhooks.seen-cache.ttl-ms:259200000}") long seenCacheTtlMs,
+                              @Value("${app.webhooks.dispatch-grace-ms:30000}") long dispatchGraceMs,
+                              @Value("${app.webhooks.retry.base-ms:5000}") long retryBaseMs,
+                              @Value("${app.webhooks.retry.max-ms:900000}") long retryMaxMs,
+                              @Value("${app.webhooks.retry.max-attempts:8}") int maxAttempts) {
+        this.webhookEventRepository = webhookEventRepository;
+        this.meterRegistry = meterRegistry;
+        this.storedEventIds = Caffeine.newBuilder()
+                .maximumSize(seenCacheMaxSize)
+                .expireAfterWrite(Duration.ofMillis(seenCacheTtlMs))
+                .build();
+        this.dispatchGraceMs = dispatchGraceMs;
+        this.retryBaseMs = retryBaseMs;
+        this.retryMaxMs = retryMaxMs;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Stores a verified webhook payload as RECEIVED, unless the same Stripe event
+     * was stored before. The event is the one parsed during signature
+     * verification. Not transactional: the insert commits on its own so a
+     * duplicate can be detected by its constraint violation.
+     *
+     * @return the stored event, or empty for a duplicate delivery
+     */
+    public Optional<WebhookEvent> store(String payload, Event event) {
+        String eventId = event.getId();
+
+        if (storedEventIds.getIfPresent(eventId) != null) {
+            return duplicate(eventId, "cache");
+        }
+        if (webhookEventRepository.existsByEventId(eventId)) {
+            storedEventIds.put(eventId, Boolean.TRUE);
+            return duplicate(eventId, "table");
+        }
+
+        WebhookEvent stored;
+        try {
+            stored = webhookEventRepository.saveAndFlush(WebhookEvent.builder()
+                    .eventId(eventId)
+                    .eventType(event.getType())
+                    .payload(payload)
+                    .nextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(dispatchGraceMs)))
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent delivery of the same event was stored first
+            storedEventIds.put(eventId, Boolean.TRUE);
+            return duplicate(eventId, "constraint");
+        }
+        storedEventIds.put(eventId, Boolean.TRUE);
+
+        log.debug("Stored Stripe event {} ({}) as webhook event {}",
+                eventId, event.getType(), stored.getId());
+        return Optional.of(stored);
+    }
+
+    /**
+     * Records a failed processing attempt and schedules the next one
+     *
+     * @return the resulting status, DEAD once the attempts are exhausted
+     */
+    @Transactional
+    public WebhookEventStatus recordFailure(Long webhookEventId, String error) {
+        WebhookEvent event = webhookEventRepository.findById(webhookEventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Webhook event not found"));
+
+        if (event.getStatus().isFinal()) {
+            return event.getStatus();
+        }
+
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(truncate(error));
+
+        if (attempts >= maxAttempts) {
+            event.setStatus(WebhookEventStatus.DEAD);
+            event.setNextAttemptAt(null);
+        } else {
+            event.setStatus(WebhookEventStatus.RETRY);
+            event.setNextAttemptAt(LocalDateTime.now().plus(backoff(attempts)));
+        }
+        return event.getStatus();
+    }
+
+    @Transactional(readOnly = true)
+    public List<WebhookEvent> findDue() {
+        return webhookEventRepository.findTop100ByStatusInAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+                PENDING_STATUSES, LocalDateTime.now());
+    }
+
+    @Transactional(readOnly = true)
+    public InboxStats stats() {
+        return new InboxStats(
+                webhookEventRepository.countByStatusIn(PENDING_STATUSES),
+                webhookEventRepository.countByStatus(WebhookEventStatus.DEAD),
+                webhookEventRepository.findOldestCreatedAtByStatusIn(PENDING_STATUSES)
+        );
+    }
+
+    private Optional<WebhookEvent> duplicate(String eventId, String source) {
+        meterRegistry.counter("webhooks.duplicates", "source", source).increment();
+        log.info("Ignoring duplicate delivery of Stripe event {}", eventId);
+        return Optional.empty();
+    }
+
+    private Duration backoff(int attempts) {
+        long delay = retryBaseMs << Math.min(attempts - 1, 20);
+        return Duration.ofMillis(Math.min(delay, retryMaxMs));
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    /**
+     * @param oldestPendingAt creation time of the oldest unprocessed event, null if there is none
+     */
+    public record InboxStats(long pending, long dead, LocalDateTime oldestPendingAt) {
+    }
+}
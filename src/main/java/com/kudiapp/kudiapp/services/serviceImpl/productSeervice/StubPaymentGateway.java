@@ -0,0 +1,68 @@
+package com.kudiapp.kudiapp.services.serviceImpl.productSeervice;
+
+import com.kudiapp.kudiapp.services.productService.PaymentGateway;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Offline {@link PaymentGateway} for load tests of the checkout path.
+ * <p>
+ * Enabled with {@code app.payments.gateway=stub}. Sessions are made up locally
+ * after a configurable delay that stands in for the provider's latency; a repeated
+ * idempotency key returns the same session, as Stripe does. Never enable this in
+ * production.
+ */
+@Component
+@ConditionalOnProperty(name = "app.payments.gateway", havingValue = "stub")
+@Slf4j
+public class StubPaymentGateway implements PaymentGateway {
+
+    private final long latencyMs;
+    private final String paymentStatus;
+
+    private final ConcurrentHashMap<String, CheckoutSession> sessionsByIdempotencyKey = new ConcurrentHashMap<>();
+
+    public StubPaymentGateway(@Value("${app.payments.stub.latency-ms:50}") long latencyMs,
+                              @Value("${app.payments.stub.payment-status:processing}") String paymentStatus) {
+        this.latencyMs = latencyMs;
+        this.paymentStatus = paymentStatus;
+        log.warn("Stub payment gateway is active, no payments will reach Stripe");
+    }
+
+    @Override
+    public CheckoutSession createCheckoutSession(CheckoutSessionRequest request) {
+        simulateLatency();
+        if (request.idempotencyKey() == null) {
+            return newSession(request);
+        }
+        return sessionsByIdempotencyKey.computeIfAbsent(request.idempotencyKey(), key -> newSession(request));
+    }
+
+    @Override
+    public Optional<String> findPaymentStatus(String reference) {
+        simulateLatency();
+        return Optional.of(paymentStatus);
+    }
+
+    private static CheckoutSession newSession(CheckoutSessionRequest request) {
+        String id = "cs_stub_" + UUID.randomUUID().toString().replace("-", "");
+        return new CheckoutSession(id, request.successUrl());
+    }
+
+    private void simulateLatency() {
+        if (latencyMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
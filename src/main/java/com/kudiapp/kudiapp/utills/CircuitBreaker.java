@@ -0,0 +1,89 @@
+package com.kudiapp.kudiapp.utills;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal consecutive-failure circuit breaker.
+ * <p>
+ * After {@code failureThreshold} failures in a row the circuit opens and calls
+ * are refused for {@code openMillis}. Then a single trial call is let through
+ * (half-open): success closes the circuit, failure opens it again.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean trialInFlight = new AtomicBoolean();
+    private volatile long openedAt;
+    private volatile State state = State.CLOSED;
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * @return true if the call may proceed; the caller must then report
+     * {@link #onSuccess()} or {@link #onFailure()}
+     */
+    public boolean tryAcquire() {
+        State current = state;
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN && System.currentTimeMillis() - openedAt < openMillis) {
+            return false;
+        }
+        // Open period elapsed, or already half-open: let exactly one trial through
+        if (trialInFlight.compareAndSet(false, true)) {
+            state = State.HALF_OPEN;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Whether {@link #tryAcquire()} would currently let a call through, without
+     * taking the half-open trial. An open circuit whose open period has elapsed
+     * counts as permitted, since the next call becomes the trial.
+     */
+    public boolean isCallPermitted() {
+        State current = state;
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN) {
+            return System.currentTimeMillis() - openedAt >= openMillis;
+        }
+        return !trialInFlight.get();
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        state = State.CLOSED;
+        trialInFlight.set(false);
+    }
+
+    public void onFailure() {
+        if (state == State.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            open();
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    private void open() {
+        openedAt = System.currentTimeMillis();
+        state = State.OPEN;
+        trialInFlight.set(false);
+    }
+}
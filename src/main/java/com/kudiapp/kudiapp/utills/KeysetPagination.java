@@ -0,0 +1,74 @@
+package com.kudiapp.kudiapp.utills;
+
+import com.kudiapp.kudiapp.dto.CursorPageResponse;
+import com.kudiapp.kudiapp.models.baseclass.BaseEntity;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Helpers for newest-first keyset (cursor) pagination over any {@link BaseEntity}.
+ * <p>
+ * Rows are ordered by (createdAt, id) descending. A page seeks past the last row
+ * of the previous page instead of skipping rows with OFFSET, and fetches one
+ * extra row to tell whether there is a next page, so no count query is run.
+ */
+public final class KeysetPagination {
+
+    public static final Sort NEWEST_FIRST = Sort.by(
+            Sort.Order.desc("createdAt"),
+            Sort.Order.desc("id")
+    );
+
+    private KeysetPagination() {
+    }
+
+    /**
+     * Rows that sort strictly after the cursor in {@link #NEWEST_FIRST} order
+     * Returns all rows if cursor is null (first page)
+     */
+    public static <T extends BaseEntity> Specification<T> after(PageCursor cursor) {
+        return (root, query, cb) -> {
+            if (cursor == null) {
+                return cb.conjunction();
+            }
+            // The redundant upper bound lets the (created_at, id) index start at the
+            // cursor instead of walking every newer row and filtering them out
+            return cb.and(
+                    cb.lessThanOrEqualTo(root.<LocalDateTime>get("createdAt"), cursor.createdAt()),
+                    cb.or(
+                            cb.lessThan(root.<LocalDateTime>get("createdAt"), cursor.createdAt()),
+                            cb.and(
+                                    cb.equal(root.get("createdAt"), cursor.createdAt()),
+                                    cb.lessThan(root.<Long>get("id"), cursor.id())
+                            )
+                    )
+            );
+        };
+    }
+
+    /**
+     * Build the response page from up to {@code size + 1} rows fetched in
+     * {@link #NEWEST_FIRST} order
+     */
+    public static <T extends BaseEntity, R> CursorPageResponse<R> toPage(
+            List<T> rows,
+            int size,
+            Function<T, R> mapper) {
+
+        boolean hasNext = rows.size() > size;
+        List<T> page = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            T last = page.get(page.size() - 1);
+            nextCursor = new PageCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        List<R> content = page.stream().map(mapper).toList();
+        return new CursorPageResponse<>(content, content.size(), nextCursor, hasNext);
+    }
+}
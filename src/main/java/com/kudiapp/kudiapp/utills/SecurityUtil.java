@@ -6,11 +6,15 @@ import com.kudiapp.kudiapp.config.security.UserDetailsImpl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Utility class for handling Spring Security authentication operations.
@@ -21,10 +25,15 @@ import java.util.Optional;
 @Slf4j
 public class SecurityUtil {
 
+    private static final String CURRENT_USER_ATTRIBUTE = SecurityUtil.class.getName() + ".CURRENT_USER";
+    private static final Set<String> ADMIN_ROLES = Set.of("ROLE_ADMIN", "ROLE_SUPER_ADMIN");
+
     private final UserRepository userRepository;
 
     /**
      * Retrieves the currently authenticated user from the security context.
+     * The user and its roles are loaded at most once per request; later calls
+     * in the same request return the cached entity.
      * 
      * @return User entity of the currently authenticated user
      * @throws RuntimeException if no authenticated user is found
@@ -32,24 +41,32 @@ public class SecurityUtil {
      */
     public User getCurrentLoggedInUser() {
         log.debug("Attempting to retrieve current logged-in user");
-        
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
-        if (authentication != null && authentication.isAuthenticated()
-                && authentication.getPrincipal() instanceof UserDetailsImpl) {
+        UserDetailsImpl principal = getCurrentPrincipal();
+        if (principal == null) {
+            log.warn("No authenticated user found in security context");
+            throw new RuntimeException("No authenticated user found");
+        }
 
-            String email = ((UserDetailsImpl) authentication.getPrincipal()).getEmail();
-            log.debug("Found authenticated user with email: {}", email);
-            
-            return userRepository.findByEmail(email)
-                    .orElseThrow(() -> {
-                        log.error("User with email {} not found in database", email);
-                        return new UsernameNotFoundException("User not found with email: " + email);
-                    });
+        String email = principal.getEmail();
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null
+                && requestAttributes.getAttribute(CURRENT_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof User cached
+                && email.equals(cached.getEmail())) {
+            return cached;
         }
 
-        log.warn("No authenticated user found in security context");
-        throw new RuntimeException("No authenticated user found");
+        log.debug("Found authenticated user with email: {}", email);
+        User user = userRepository.findWithRolesByEmail(email)
+                .orElseThrow(() -> {
+                    log.error("User with email {} not found in database", email);
+                    return new UsernameNotFoundException("User not found with email: " + email);
+                });
+
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(CURRENT_USER_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
     }
 
     /**
@@ -113,6 +130,10 @@ public class SecurityUtil {
      * @throws UsernameNotFoundException if user exists in security context but not in database
      */
     public Long getCurrentUserId() {
+        UserDetailsImpl principal = getCurrentPrincipal();
+        if (principal != null && principal.getId() != null) {
+            return principal.getId();
+        }
         return getCurrentLoggedInUser().getId();
     }
 
@@ -123,9 +144,29 @@ public class SecurityUtil {
      * @return Optional containing user ID if authenticated, empty otherwise
      */
     public Optional<Long> getCurrentUserIdSafely() {
+        UserDetailsImpl principal = getCurrentPrincipal();
+        if (principal != null && principal.getId() != null) {
+            return Optional.of(principal.getId());
+        }
         return getCurrentLoggedInUserSafely().map(User::getId);
     }
 
+    /**
+     * Checks if the currently authenticated user has an admin role.
+     * Uses the authorities already on the principal, so no database access is needed.
+     * 
+     * @return true if the current user is an admin or super admin, false otherwise
+     */
+    public boolean isAdmin() {
+        UserDetailsImpl principal = getCurrentPrincipal();
+        if (principal == null || principal.getAuthorities() == null) {
+            return false;
+        }
+        return principal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch(ADMIN_ROLES::contains);
+    }
+
     /**
      * Checks if there is currently an authenticated user.
      * 
@@ -165,4 +206,14 @@ public class SecurityUtil {
                 .map(currentUserId -> currentUserId.equals(userId))
                 .orElse(false);
     }
+
+    private UserDetailsImpl getCurrentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication != null && authentication.isAuthenticated()
+                && authentication.getPrincipal() instanceof UserDetailsImpl principal) {
+            return principal;
+        }
+        return null;
+    }
 }
\ No newline at end of file
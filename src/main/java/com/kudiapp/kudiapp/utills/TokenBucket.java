@@ -0,0 +1,42 @@
+package com.kudiapp.kudiapp.utills;
+
+/**
+ * Minimal token bucket.
+ * <p>
+ * Holds up to {@code capacity} tokens and refills continuously at
+ * {@code capacity} tokens per {@code refillMillis}. Each permitted call takes
+ * one token.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerMilli;
+
+    private double tokens;
+    private long lastRefillAt;
+
+    public TokenBucket(int capacity, long refillMillis) {
+        this.capacity = capacity;
+        this.tokensPerMilli = (double) capacity / refillMillis;
+        this.tokens = capacity;
+        this.lastRefillAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @return 0 if the call may proceed, otherwise the milliseconds until the
+     * next token is available
+     */
+    public synchronized long tryConsume() {
+        long now = System.currentTimeMillis();
+        tokens = Math.min(capacity, tokens + (now - lastRefillAt) * tokensPerMilli);
+        lastRefillAt = now;
+
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil((1 - tokens) / tokensPerMilli));
+    }
+}
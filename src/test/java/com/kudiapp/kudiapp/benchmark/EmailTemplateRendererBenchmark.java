@@ -0,0 +1,68 @@
+package com.kudiapp.kudiapp.benchmark;
+
+import com.kudiapp.kudiapp.enums.EmailTemplate;
+import com.kudiapp.kudiapp.services.serviceImpl.EmailTemplateRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of email rendering (text and HTML body), in emails per second.
+ * <p>
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.kudiapp.kudiapp.benchmark.EmailTemplateRendererBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class EmailTemplateRendererBenchmark {
+
+    private EmailTemplateRenderer renderer;
+    private Map<String, Object> verificationVariables;
+    private Map<String, Object> resetVariables;
+
+    @Setup
+    public void setUp() {
+        renderer = new EmailTemplateRenderer();
+        verificationVariables = Map.of("code", "482913", "expiresInMinutes", 10);
+        resetVariables = Map.of(
+                "name", "Bench",
+                "type", "password reset",
+                "code", "730164",
+                "expirationMinutes", 15);
+    }
+
+    @Benchmark
+    public EmailTemplateRenderer.RenderedEmail verificationCode() {
+        return renderer.render(EmailTemplate.VERIFICATION_CODE, verificationVariables);
+    }
+
+    @Benchmark
+    public EmailTemplateRenderer.RenderedEmail passwordReset() {
+        return renderer.render(EmailTemplate.PASSWORD_RESET, resetVariables);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EmailTemplateRendererBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
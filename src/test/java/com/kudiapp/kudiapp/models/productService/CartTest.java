@@ -0,0 +1,135 @@
+package com.kudiapp.kudiapp.models.productService;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CartTest {
+
+    @Test
+    void addingOrdersMovesTotalsUp() {
+        Cart cart = Cart.builder().build();
+
+        cart.addOrder(order("100.00", "5.00"));
+        cart.addOrder(order("40.50", "2.25"));
+
+        assertEquals(2, cart.getItemCount());
+        assertAmount("140.50", cart.getSubtotal());
+        assertAmount("7.25", cart.getTotalServiceFee());
+        assertAmount("147.75", cart.getTotalAmount());
+    }
+
+    @Test
+    void addingOrderLinksItToCart() {
+        Cart cart = Cart.builder().build();
+        Order order = order("10.00", "1.00");
+
+        cart.addOrder(order);
+
+        assertSame(cart, order.getCart());
+        assertTrue(cart.getOrders().contains(order));
+    }
+
+    @Test
+    void removingOrderMovesTotalsBack() {
+        Cart cart = Cart.builder().build();
+        Order kept = order("100.00", "5.00");
+        Order removed = order("40.50", "2.25");
+        cart.addOrder(kept);
+        cart.addOrder(removed);
+
+        cart.removeOrder(removed);
+
+        assertEquals(1, cart.getItemCount());
+        assertAmount("100.00", cart.getSubtotal());
+        assertAmount("5.00", cart.getTotalServiceFee());
+        assertAmount("105.00", cart.getTotalAmount());
+        assertNull(removed.getCart());
+    }
+
+    @Test
+    void removingEveryOrderReturnsTotalsToZero() {
+        Cart cart = Cart.builder().build();
+        Order first = order("100.00", "5.00");
+        Order second = order("40.50", "2.25");
+        cart.addOrder(first);
+        cart.addOrder(second);
+
+        cart.removeOrder(first);
+        cart.removeOrder(second);
+
+        assertTrue(cart.isEmpty());
+        assertEquals(0, cart.getItemCount());
+        assertAmount("0", cart.getSubtotal());
+        assertAmount("0", cart.getTotalServiceFee());
+        assertAmount("0", cart.getTotalAmount());
+    }
+
+    @Test
+    void orderWithoutServiceFeeCountsOnlyItsAmount() {
+        Cart cart = Cart.builder().build();
+        Order order = order("20.00", null);
+
+        cart.addOrder(order);
+
+        assertAmount("20.00", cart.getSubtotal());
+        assertAmount("0", cart.getTotalServiceFee());
+        assertAmount("20.00", cart.getTotalAmount());
+    }
+
+    @Test
+    void incrementalTotalsMatchFullRecompute() {
+        Cart cart = Cart.builder().build();
+        Order first = order("100.00", "5.00");
+        cart.addOrder(first);
+        cart.addOrder(order("40.50", "2.25"));
+        cart.addOrder(order("9.99", "0.50"));
+        cart.removeOrder(first);
+
+        BigDecimal subtotal = cart.getSubtotal();
+        BigDecimal serviceFee = cart.getTotalServiceFee();
+        BigDecimal total = cart.getTotalAmount();
+        int itemCount = cart.getItemCount();
+
+        cart.updateCartTotals();
+
+        assertEquals(itemCount, cart.getItemCount());
+        assertAmount(subtotal.toPlainString(), cart.getSubtotal());
+        assertAmount(serviceFee.toPlainString(), cart.getTotalServiceFee());
+        assertAmount(total.toPlainString(), cart.getTotalAmount());
+    }
+
+    @Test
+    void clearingResetsTotals() {
+        Cart cart = Cart.builder().build();
+        Order order = order("100.00", "5.00");
+        cart.addOrder(order);
+
+        cart.clearOrders();
+
+        assertTrue(cart.isEmpty());
+        assertEquals(0, cart.getItemCount());
+        assertAmount("0", cart.getTotalAmount());
+        assertNull(order.getCart());
+    }
+
+    private static Order order(String amount, String serviceFee) {
+        Order order = Order.builder()
+                .amount(new BigDecimal(amount))
+                .serviceFee(serviceFee == null ? null : new BigDecimal(serviceFee))
+                .build();
+        order.calculateTotalAmount();
+        return order;
+    }
+
+    // BigDecimal.equals compares scale as well, totals are compared by value
+    private static void assertAmount(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual),
+                "expected " + expected + " but was " + actual);
+    }
+}
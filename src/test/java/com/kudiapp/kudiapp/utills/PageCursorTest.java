@@ -0,0 +1,67 @@
+package com.kudiapp.kudiapp.utills;
+
+import com.kudiapp.kudiapp.exceptions.InvalidRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageCursorTest {
+
+    @Test
+    void roundTripsThroughEncodedForm() {
+        PageCursor cursor = new PageCursor(LocalDateTime.of(2024, 3, 9, 14, 5, 30, 123_456_000), 42L);
+
+        assertEquals(cursor, PageCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void encodedFormIsUrlSafe() {
+        String token = new PageCursor(LocalDateTime.of(2024, 12, 31, 23, 59, 59), Long.MAX_VALUE).encode();
+
+        assertFalse(token.contains("+") || token.contains("/") || token.contains("="), token);
+    }
+
+    @Test
+    void blankTokenMeansFirstPage() {
+        assertNull(PageCursor.decode(null));
+        assertNull(PageCursor.decode(" "));
+    }
+
+    @Test
+    void rejectsTokenThatIsNotBase64() {
+        assertThrows(InvalidRequestException.class, () -> PageCursor.decode("not a cursor!"));
+    }
+
+    @Test
+    void rejectsTokenWithoutSeparator() {
+        assertThrows(InvalidRequestException.class, () -> PageCursor.decode(encode("2024-03-09T14:05:30")));
+    }
+
+    @Test
+    void rejectsTamperedTimestamp() {
+        assertThrows(InvalidRequestException.class, () -> PageCursor.decode(encode("yesterday|42")));
+    }
+
+    @Test
+    void rejectsTamperedId() {
+        assertThrows(InvalidRequestException.class, () -> PageCursor.decode(encode("2024-03-09T14:05:30|1 OR 1=1")));
+    }
+
+    @Test
+    void rejectsTruncatedToken() {
+        String token = new PageCursor(LocalDateTime.of(2024, 3, 9, 14, 5, 30), 42L).encode();
+
+        assertThrows(InvalidRequestException.class, () -> PageCursor.decode(token.substring(0, token.length() / 2)));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
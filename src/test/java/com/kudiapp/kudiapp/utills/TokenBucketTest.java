@@ -0,0 +1,59 @@
+package com.kudiapp.kudiapp.utills;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    @Test
+    void allowsBurstUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(3, 60_000);
+
+        assertEquals(0, bucket.tryConsume());
+        assertEquals(0, bucket.tryConsume());
+        assertEquals(0, bucket.tryConsume());
+        assertTrue(bucket.tryConsume() > 0);
+    }
+
+    @Test
+    void reportsWaitUntilNextToken() {
+        // One token per 20 seconds
+        TokenBucket bucket = new TokenBucket(3, 60_000);
+        for (int i = 0; i < 3; i++) {
+            bucket.tryConsume();
+        }
+
+        long waitMillis = bucket.tryConsume();
+
+        assertTrue(waitMillis > 19_000 && waitMillis <= 20_000, "wait was " + waitMillis);
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        // One token per 20 milliseconds
+        TokenBucket bucket = new TokenBucket(2, 40);
+        bucket.tryConsume();
+        bucket.tryConsume();
+
+        long waitMillis = bucket.tryConsume();
+        assertTrue(waitMillis > 0);
+
+        Thread.sleep(waitMillis + 10);
+
+        assertEquals(0, bucket.tryConsume());
+    }
+
+    @Test
+    void refillIsCappedAtCapacity() throws InterruptedException {
+        // One token per 50 milliseconds, idle long enough to refill three
+        TokenBucket bucket = new TokenBucket(2, 100);
+
+        Thread.sleep(150);
+
+        assertEquals(0, bucket.tryConsume());
+        assertEquals(0, bucket.tryConsume());
+        assertTrue(bucket.tryConsume() > 0);
+    }
+}